@@ -1,7 +1,6 @@
 package com.dmh.backend.security;
 
-import com.dmh.backend.service.UserService;
-import org.springframework.context.annotation.Lazy;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,15 +24,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
-    private final UserService userService;
+    private final RevokedTokenStore revokedTokenStore;
 
     @Autowired
     public JwtAuthenticationFilter(JwtTokenProvider tokenProvider,
                                    CustomUserDetailsService customUserDetailsService,
-                                   @Lazy UserService userService) {
+                                   RevokedTokenStore revokedTokenStore) {
         this.tokenProvider = tokenProvider;
         this.customUserDetailsService = customUserDetailsService;
-        this.userService = userService;
+        this.revokedTokenStore = revokedTokenStore;
     }
 
     @Override
@@ -42,9 +41,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
         String jwt = getJwtFromRequest(request);
 
-        if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt) && !userService.isTokenRevoked(jwt)) {
-            String username = tokenProvider.getUsernameFromToken(jwt);
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+        // One parse per request: signature, expiry and claims come from the same call
+        Claims claims = StringUtils.hasText(jwt) ? tokenProvider.parseClaims(jwt).orElse(null) : null;
+        if (claims != null && !revokedTokenStore.isRevoked(JwtTokenProvider.tokenId(claims, jwt))) {
+            // Tokens carry the signed user id and roles, so the principal is built without a database lookup.
+            // Tokens issued before those claims existed are still resolved by email (cached).
+            UserDetails userDetails = claims.get(JwtTokenProvider.CLAIM_USER_ID) != null
+                    ? CustomUserDetails.fromClaims(claims)
+                    : customUserDetailsService.loadUserByUsername(claims.getSubject());
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                     userDetails, null, userDetails.getAuthorities());
             authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
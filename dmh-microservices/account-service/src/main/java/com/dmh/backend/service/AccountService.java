@@ -25,10 +25,10 @@ public class AccountService {
      * @param id identificador del usuario
      * @return información de la cuenta
      */
+    @Transactional(readOnly = true)
     public AccountResponse getAccount(Long id) {
-        User user = userRepository.findById(id)
+        return userRepository.findAccountById(id)
                 .orElseThrow(() -> new NoSuchElementException("User not found"));
-        return new AccountResponse(user.getId(), user.getCvu(), user.getAlias(), user.getBalance());
     }
 
     /**
@@ -0,0 +1,51 @@
+package com.dmh.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.support.ResourcePropertySource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Smoke check de la réplica de lectura de este servicio: apagada por defecto, se activa con
+ * {@code DB_REPLICA_ENABLED} y sus pools llevan el nombre del servicio (las métricas {@code hikaricp.*} se etiquetan
+ * con él). El ruteo y las métricas de {@link ReadReplicaDataSourceConfig}, que es la misma en los cuatro servicios,
+ * se prueban en user-service con el perfil {@code test}.
+ */
+class ReadReplicaDataSourceConfigTest {
+
+    @Test
+    void disabledByDefault() throws IOException {
+        MockEnvironment environment = environment(Map.of());
+
+        assertThat(environment.getProperty("dmh.datasource.replica.enabled", Boolean.class)).isFalse();
+        assertThat(environment.getProperty("spring.datasource.hikari.pool-name")).isEqualTo("account-primary");
+        assertThat(environment.getProperty("dmh.datasource.replica.pool-name")).isEqualTo("account-replica");
+    }
+
+    @Test
+    void enabledFromTheEnvironment() throws IOException {
+        MockEnvironment environment = environment(Map.of(
+                "DB_REPLICA_ENABLED", "true",
+                "DB_REPLICA_URL", "jdbc:mysql://replica:3306/dmh_db",
+                "DB_REPLICA_POOL_SIZE", "4"));
+
+        assertThat(environment.getProperty("dmh.datasource.replica.enabled", Boolean.class)).isTrue();
+        assertThat(environment.getProperty("dmh.datasource.replica.jdbc-url"))
+                .isEqualTo("jdbc:mysql://replica:3306/dmh_db");
+        assertThat(environment.getProperty("dmh.datasource.replica.maximum-pool-size", Integer.class)).isEqualTo(4);
+        // el pool de la primaria no cambia
+        assertThat(environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class)).isEqualTo(10);
+    }
+
+    // sólo las variables indicadas: las del entorno real no afectan el resultado
+    private static MockEnvironment environment(Map<String, String> variables) throws IOException {
+        MockEnvironment environment = new MockEnvironment();
+        variables.forEach(environment::setProperty);
+        environment.getPropertySources().addLast(new ResourcePropertySource("classpath:application.properties"));
+        return environment;
+    }
+}
@@ -1,8 +1,16 @@
 package com.dmh.gateway.config;
 
+import com.dmh.gateway.filter.AccountResponseCacheFilter;
+import com.dmh.gateway.resilience.JitteredRetryFilter;
+import com.dmh.gateway.resilience.ResilienceProperties;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
 import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.GatewayFilterSpec;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.cloud.gateway.route.builder.UriSpec;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -22,12 +30,59 @@ public class GatewayRoutesConfig {
   private String txService;
 
   @Bean
-  public RouteLocator routes(RouteLocatorBuilder builder) {
+  public RouteLocator routes(RouteLocatorBuilder builder,
+                             AccountResponseCacheFilter accountResponseCache,
+                             RateLimiter<?> rateLimiter,
+                             KeyResolver userKeyResolver,
+                             ResilienceProperties resilience) {
+    // Sub-resources of /accounts/{id} live in different services: the specific routes are evaluated first and
+    // the catch-all /accounts/** (account-service) last, so every call goes straight to the service that owns it.
+    // The activity export is matched before the transactions route: it streams for as long as the history takes.
     return builder.routes()
-      .route("users", r -> r.path("/users/**", "/auth/**").uri("lb://" + usersService))
-      .route("accounts", r -> r.path("/accounts/**").uri("lb://" + accountsService))
-      .route("cards", r -> r.path("/cards/**").uri("lb://" + cardsService))
-      .route("transactions", r -> r.path("/transactions/**").uri("lb://" + txService))
+      .route("activity-export", r -> r.order(0).path("/accounts/*/activity/export")
+          .filters(f -> streaming(f, "activity-export", rateLimiter, userKeyResolver, resilience))
+          .uri("lb://" + txService))
+      .route("users", r -> r.order(0).path("/users/**", "/auth/**", "/user/logout")
+          .filters(f -> common(f, "users", rateLimiter, userKeyResolver, resilience))
+          .uri("lb://" + usersService))
+      .route("cards", r -> r.order(1).path("/accounts/*/cards", "/accounts/*/cards/**", "/cards/**")
+          .filters(f -> common(f.filter(accountResponseCache), "cards", rateLimiter, userKeyResolver, resilience))
+          .uri("lb://" + cardsService))
+      .route("transactions", r -> r.order(1).path(
+              "/accounts/*/activity", "/accounts/*/activity/**",
+              "/accounts/*/transferences", "/accounts/*/transactions",
+              "/accounts/*/balance", "/accounts/*/balance/**",
+              "/transactions/**")
+          .filters(f -> common(f.filter(accountResponseCache), "transactions", rateLimiter, userKeyResolver, resilience))
+          .uri("lb://" + txService))
+      .route("accounts", r -> r.order(2).path("/accounts/**")
+          .filters(f -> common(f.filter(accountResponseCache), "accounts", rateLimiter, userKeyResolver, resilience))
+          .uri("lb://" + accountsService))
       .build();
   }
+
+  // Filters shared by every route, outermost first:
+  // rate limit (429 + Retry-After, limits per route id under dmh.rate-limit.routes),
+  // circuit breaker named after the route (503 fallback while open),
+  // jittered retry of failed GETs, and connect/response timeouts from dmh.resilience.routes.<id>.
+  private UriSpec common(GatewayFilterSpec f, String routeId, RateLimiter<?> rateLimiter,
+                         KeyResolver keyResolver, ResilienceProperties resilience) {
+    ResilienceProperties.Policy policy = resilience.policyFor(routeId);
+    return f.requestRateLimiter(c -> c.setRateLimiter(rateLimiter).setKeyResolver(keyResolver))
+        .circuitBreaker(c -> c.setName(routeId).setFallbackUri("forward:/fallback/" + routeId))
+        .filter(new JitteredRetryFilter(policy))
+        .metadata(RouteMetadataUtils.CONNECT_TIMEOUT_ATTR, (int) policy.getConnectTimeout().toMillis())
+        .metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, policy.getResponseTimeout().toMillis());
+  }
+
+  // Long-lived streamed responses: rate limit and timeouts only. The breaker would time the whole body (a slow
+  // export would count as a slow call against the route) and a retry cannot resume a half-written body.
+  // The response timeout covers the time to the first byte only, so the body itself is not cut.
+  private UriSpec streaming(GatewayFilterSpec f, String routeId, RateLimiter<?> rateLimiter,
+                            KeyResolver keyResolver, ResilienceProperties resilience) {
+    ResilienceProperties.Policy policy = resilience.policyFor(routeId);
+    return f.requestRateLimiter(c -> c.setRateLimiter(rateLimiter).setKeyResolver(keyResolver))
+        .metadata(RouteMetadataUtils.CONNECT_TIMEOUT_ATTR, (int) policy.getConnectTimeout().toMillis())
+        .metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, policy.getResponseTimeout().toMillis());
+  }
 }
@@ -0,0 +1,23 @@
+package com.dmh.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// paths the gateway forwards without a JWT (dmh.security.public-paths)
+@Component
+@ConfigurationProperties(prefix = "dmh.security")
+public class PublicPathsProperties {
+
+  private List<String> publicPaths = new ArrayList<>();
+
+  public List<String> getPublicPaths() {
+    return publicPaths;
+  }
+
+  public void setPublicPaths(List<String> publicPaths) {
+    this.publicPaths = publicPaths;
+  }
+}
@@ -0,0 +1,25 @@
+package com.dmh.gateway.config;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+@Configuration
+public class RateLimitConfig {
+
+  // one bucket per authenticated user (X-User-Id comes from the JWT filter); anonymous calls are keyed by client IP
+  @Bean
+  public KeyResolver userKeyResolver() {
+    return exchange -> {
+      String userId = exchange.getRequest().getHeaders().getFirst("X-User-Id");
+      if (userId != null && !userId.isEmpty()) {
+        return Mono.just("user:" + userId);
+      }
+      InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+      return Mono.just("ip:" + (remote != null ? remote.getHostString() : "unknown"));
+    };
+  }
+}
@@ -0,0 +1,88 @@
+package com.dmh.gateway.controller;
+
+import com.dmh.gateway.dto.DashboardResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Home screen composition: account, last transactions, cards and last recipients in a single call.
+ * <p>
+ * The four calls are issued in parallel, so latency is the slowest branch instead of the sum. Each branch has its own
+ * timeout; a branch that fails or times out leaves its section empty and is reported in {@code unavailable} instead
+ * of failing the whole response. Controllers are matched before the gateway routes, so this path is served here.
+ */
+@RestController
+public class DashboardController {
+
+  private final WebClient webClient;
+  private final Duration branchTimeout;
+  private final String accountsService;
+  private final String cardsService;
+  private final String txService;
+
+  public DashboardController(WebClient.Builder loadBalancedWebClientBuilder,
+                             @Value("${dmh.dashboard.branch-timeout:2s}") Duration branchTimeout,
+                             @Value("${dmh.accounts.serviceId:ACCOUNT-SERVICE}") String accountsService,
+                             @Value("${dmh.cards.serviceId:CARD-SERVICE}") String cardsService,
+                             @Value("${dmh.transactions.serviceId:TRANSACTION-SERVICE}") String txService) {
+    this.webClient = loadBalancedWebClientBuilder.build();
+    this.branchTimeout = branchTimeout;
+    this.accountsService = accountsService;
+    this.cardsService = cardsService;
+    this.txService = txService;
+  }
+
+  @GetMapping("/accounts/{accountId}/dashboard")
+  public Mono<ResponseEntity<DashboardResponse>> dashboard(@PathVariable("accountId") Long accountId,
+                                                           @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                                           @RequestHeader(value = "X-User-Id", required = false) String userId) {
+    if (!String.valueOf(accountId).equals(userId)) {
+      return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+    }
+
+    return Mono.zip(
+        branch(accountsService, "/accounts/{id}", accountId, authorization),
+        branch(txService, "/accounts/{id}/transactions", accountId, authorization),
+        branch(cardsService, "/accounts/{id}/cards", accountId, authorization),
+        branch(txService, "/accounts/{id}/transferences", accountId, authorization)
+    ).map(sections -> {
+      DashboardResponse response = new DashboardResponse();
+      response.setAccount(section(sections.getT1(), "account", response));
+      response.setLastTransactions(section(sections.getT2(), "lastTransactions", response));
+      response.setCards(section(sections.getT3(), "cards", response));
+      response.setLastRecipients(section(sections.getT4(), "lastRecipients", response));
+      HttpStatus status = response.getUnavailable().size() == 4 ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK;
+      return ResponseEntity.status(status).body(response);
+    });
+  }
+
+  private Mono<Optional<Object>> branch(String serviceId, String path, Long accountId, String authorization) {
+    return webClient.get()
+        .uri("lb://" + serviceId + path, accountId)
+        .header(HttpHeaders.AUTHORIZATION, authorization)
+        .retrieve()
+        .bodyToMono(Object.class)
+        .timeout(branchTimeout)
+        .map(Optional::of)
+        .onErrorResume(e -> Mono.just(Optional.empty()))
+        .defaultIfEmpty(Optional.empty());
+  }
+
+  private static Object section(Optional<Object> value, String name, DashboardResponse response) {
+    if (!value.isPresent()) {
+      response.getUnavailable().add(name);
+    }
+    return value.orElse(null);
+  }
+}
@@ -0,0 +1,22 @@
+package com.dmh.gateway.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// target of the circuit breakers (forward:/fallback/{route}): fail fast instead of waiting on a sick service
+@RestController
+public class FallbackController {
+
+  @RequestMapping("/fallback/{routeId}")
+  public Mono<ResponseEntity<Map<String, String>>> fallback(@PathVariable("routeId") String routeId) {
+    return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header("Retry-After", "5")
+        .body(Map.of("message", "Service temporarily unavailable, please retry later", "route", routeId)));
+  }
+}
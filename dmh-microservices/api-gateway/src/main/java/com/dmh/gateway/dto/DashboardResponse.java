@@ -0,0 +1,54 @@
+package com.dmh.gateway.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// home screen in one call; sections that failed or timed out are null and listed in "unavailable"
+public class DashboardResponse {
+
+  private Object account;
+  private Object lastTransactions;
+  private Object cards;
+  private Object lastRecipients;
+  private List<String> unavailable = new ArrayList<>();
+
+  public Object getAccount() {
+    return account;
+  }
+
+  public void setAccount(Object account) {
+    this.account = account;
+  }
+
+  public Object getLastTransactions() {
+    return lastTransactions;
+  }
+
+  public void setLastTransactions(Object lastTransactions) {
+    this.lastTransactions = lastTransactions;
+  }
+
+  public Object getCards() {
+    return cards;
+  }
+
+  public void setCards(Object cards) {
+    this.cards = cards;
+  }
+
+  public Object getLastRecipients() {
+    return lastRecipients;
+  }
+
+  public void setLastRecipients(Object lastRecipients) {
+    this.lastRecipients = lastRecipients;
+  }
+
+  public List<String> getUnavailable() {
+    return unavailable;
+  }
+
+  public void setUnavailable(List<String> unavailable) {
+    this.unavailable = unavailable;
+  }
+}
@@ -0,0 +1,187 @@
+package com.dmh.gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Short-lived per-account cache of the dashboard reads ({@code GET /accounts/{id}}, {@code /accounts/{id}/transactions}
+ * and {@code /accounts/{id}/cards}) with ETag / If-None-Match support. Entries are keyed by path; requests carrying a
+ * query string are not cached.
+ * <p>
+ * Only requests where the authenticated user (X-User-Id, set by {@link JwtAuthenticationFilter}) owns the account are
+ * cached, so an entry is never served to another user. A fresh hit is answered at the edge: 304 when the client
+ * already holds the same ETag, otherwise the cached body. Any write under {@code /accounts/{id}/**} (transfers,
+ * income, card add/delete, alias PATCH) drops the account's entries once it completes. Changes the gateway cannot
+ * attribute to an account, such as the receiving side of a transfer, are picked up when the TTL expires.
+ * <p>
+ * Attached to every route serving {@code /accounts/{id}/...} (account, card and transaction services) so it sees all
+ * the writes. Must run before {@link NettyWriteResponseFilter} so the response decorator sees the upstream body.
+ */
+@Component
+public class AccountResponseCacheFilter implements GatewayFilter, Ordered {
+
+  private static final PathPatternParser PARSER = PathPatternParser.defaultInstance;
+  private static final List<PathPattern> CACHEABLE = List.of(
+      PARSER.parse("/accounts/{accountId}"),
+      PARSER.parse("/accounts/{accountId}/transactions"),
+      PARSER.parse("/accounts/{accountId}/cards"));
+  private static final PathPattern ACCOUNT_SCOPED = PARSER.parse("/accounts/{accountId}/**");
+
+  private final Cache<String, AccountEntry> cache;
+  private final long ttlMillis;
+
+  public AccountResponseCacheFilter(@Value("${dmh.response-cache.ttl-seconds:10}") long ttlSeconds,
+                                    @Value("${dmh.response-cache.max-accounts:10000}") long maxAccounts) {
+    this.ttlMillis = Duration.ofSeconds(ttlSeconds).toMillis();
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxAccounts)
+        .expireAfterAccess(Duration.ofSeconds(ttlSeconds * 2))
+        .build();
+  }
+
+  @Override
+  public int getOrder() {
+    return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+    ServerHttpRequest request = exchange.getRequest();
+    PathContainer path = request.getPath().pathWithinApplication();
+
+    if (request.getMethod() != HttpMethod.GET) {
+      PathPattern.PathMatchInfo scoped = ACCOUNT_SCOPED.matchAndExtract(path);
+      if (scoped == null) {
+        return chain.filter(exchange);
+      }
+      String accountId = scoped.getUriVariables().get("accountId");
+      return chain.filter(exchange).doFinally(signal -> cache.invalidate(accountId));
+    }
+
+    // the cached endpoints take no query parameters: a query would only add keys (unbounded per account), so it
+    // bypasses the cache
+    String accountId = cacheableAccountId(path);
+    if (accountId == null || request.getURI().getRawQuery() != null
+        || !accountId.equals(request.getHeaders().getFirst("X-User-Id"))) {
+      return chain.filter(exchange);
+    }
+
+    // entries stored through a detached AccountEntry (invalidated meanwhile) are simply lost
+    AccountEntry entry = cache.get(accountId, id -> new AccountEntry());
+    String key = path.value();
+    List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+
+    CachedResponse cached = entry.responses.get(key);
+    if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+      return writeCached(exchange.getResponse(), cached, ifNoneMatch);
+    }
+
+    ServerHttpResponse original = exchange.getResponse();
+    ServerHttpResponseDecorator capturing = new ServerHttpResponseDecorator(original) {
+      @Override
+      public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        if (getStatusCode() != HttpStatus.OK) {
+          return super.writeWith(body);
+        }
+        return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+          byte[] bytes = new byte[joined.readableByteCount()];
+          joined.read(bytes);
+          DataBufferUtils.release(joined);
+
+          CachedResponse response = new CachedResponse(bytes, getHeaders().getContentType(),
+              System.currentTimeMillis() + ttlMillis);
+          entry.responses.put(key, response);
+          return writeCached(getDelegate(), response, ifNoneMatch);
+        });
+      }
+    };
+    return chain.filter(exchange.mutate().response(capturing).build());
+  }
+
+  private static String cacheableAccountId(PathContainer path) {
+    for (PathPattern pattern : CACHEABLE) {
+      PathPattern.PathMatchInfo info = pattern.matchAndExtract(path);
+      if (info != null) {
+        return info.getUriVariables().get("accountId");
+      }
+    }
+    return null;
+  }
+
+  private static Mono<Void> writeCached(ServerHttpResponse response, CachedResponse cached, List<String> ifNoneMatch) {
+    HttpHeaders headers = response.getHeaders();
+    headers.setETag(cached.etag);
+    // clients may keep the body but must revalidate it; the gateway answers that with a 304
+    headers.setCacheControl("private, no-cache");
+    headers.remove(HttpHeaders.PRAGMA);
+    headers.remove(HttpHeaders.EXPIRES);
+    if (matches(ifNoneMatch, cached.etag)) {
+      response.setStatusCode(HttpStatus.NOT_MODIFIED);
+      headers.remove(HttpHeaders.CONTENT_LENGTH);
+      return response.setComplete();
+    }
+    response.setStatusCode(HttpStatus.OK);
+    if (cached.contentType != null) {
+      headers.setContentType(cached.contentType);
+    }
+    headers.remove(HttpHeaders.TRANSFER_ENCODING);
+    headers.setContentLength(cached.body.length);
+    return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body)));
+  }
+
+  private static boolean matches(List<String> ifNoneMatch, String etag) {
+    for (String candidate : ifNoneMatch) {
+      String value = candidate.startsWith("W/") ? candidate.substring(2) : candidate;
+      if (value.equals(etag) || value.equals("*")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static final class AccountEntry {
+    private final ConcurrentMap<String, CachedResponse> responses = new ConcurrentHashMap<>();
+  }
+
+  private static final class CachedResponse {
+    private final byte[] body;
+    private final MediaType contentType;
+    private final String etag;
+    private final long expiresAt;
+
+    private CachedResponse(byte[] body, MediaType contentType, long expiresAt) {
+      this.body = body;
+      this.contentType = contentType;
+      this.etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+      this.expiresAt = expiresAt;
+    }
+  }
+}
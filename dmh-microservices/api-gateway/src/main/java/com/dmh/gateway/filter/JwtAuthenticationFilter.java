@@ -1,13 +1,15 @@
 package com.dmh.gateway.filter;
 
+import com.dmh.gateway.revocation.RevokedTokenRegistry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
@@ -15,37 +17,44 @@ import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter implements WebFilter {
 
-  private final Key key;
-  private final AntPathMatcher matcher = new AntPathMatcher();
-  private final List<String> publicPaths = List.of(
-      "/auth/login",
-      "/users/register",
-      "/swagger-ui/**",
-      "/v3/api-docs/**",
-      "/actuator/health"
-  );
-
-  public JwtAuthenticationFilter(@Value("${jwt.secret}") String base64Secret) {
+  private static final String IDENTITY_HEADER_PREFIX = "X-User-";
+
+  // immutable and thread-safe: built once and shared by every exchange
+  private final JwtParser parser;
+  private final PublicPathMatcher publicPaths;
+
+  private final RevokedTokenRegistry revokedTokens;
+
+  public JwtAuthenticationFilter(@Value("${jwt.secret}") String base64Secret,
+                                 PublicPathMatcher publicPaths,
+                                 RevokedTokenRegistry revokedTokens) {
     byte[] decoded = Base64.getDecoder().decode(base64Secret);
-    this.key = Keys.hmacShaKeyFor(decoded);
+    Key key = Keys.hmacShaKeyFor(decoded);
+    this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+    this.publicPaths = publicPaths;
+    this.revokedTokens = revokedTokens;
   }
 
   @Override
   public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    // X-User-* headers are only ever set from a verified token: drop whatever the client sent, on every path, so
+    // they cannot be spoofed towards the services or the rate limiter's key resolver
+    return authenticate(withoutIdentityHeaders(exchange), chain);
+  }
+
+  private Mono<Void> authenticate(ServerWebExchange exchange, WebFilterChain chain) {
     ServerHttpRequest request = exchange.getRequest();
 
     // allow public paths
-    String path = request.getURI().getPath();
-    for (String pattern : publicPaths) {
-      if (matcher.match(pattern, path)) {
-        return chain.filter(exchange);
-      }
+    if (publicPaths.isPublic(request.getPath().pathWithinApplication())) {
+      return chain.filter(exchange);
     }
 
     List<String> authHeaders = request.getHeaders().getOrEmpty("Authorization");
@@ -56,15 +65,24 @@ public class JwtAuthenticationFilter implements WebFilter {
 
     String token = authHeaders.get(0).substring(7);
 
+    Claims claims;
     try {
-      Claims claims = Jwts.parserBuilder()
-          .setSigningKey(key)
-          .build()
-          .parseClaimsJws(token)
-          .getBody();
+      claims = parser.parseClaimsJws(token).getBody();
+    } catch (Exception e) {
+      exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+      return exchange.getResponse().setComplete();
+    }
 
-      String subject = claims.getSubject(); // email
-      Object idClaim = claims.get("id");
+    String subject = claims.getSubject(); // email
+    Object idClaim = claims.get("id");
+    // same id the services revoke on logout: the jti, or the signature for tokens issued without one
+    String tokenId = claims.getId() != null ? claims.getId() : token.substring(token.lastIndexOf('.') + 1);
+
+    return revokedTokens.isRevoked(tokenId).flatMap(revoked -> {
+      if (revoked) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        return exchange.getResponse().setComplete();
+      }
 
       // propagate downstream
       ServerHttpRequest mutated = exchange.getRequest().mutate()
@@ -73,9 +91,23 @@ public class JwtAuthenticationFilter implements WebFilter {
           .build();
 
       return chain.filter(exchange.mutate().request(mutated).build());
-    } catch (Exception e) {
-      exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-      return exchange.getResponse().setComplete();
+    });
+  }
+
+  private static ServerWebExchange withoutIdentityHeaders(ServerWebExchange exchange) {
+    HttpHeaders headers = exchange.getRequest().getHeaders();
+    List<String> spoofed = new ArrayList<>();
+    for (String name : headers.keySet()) {
+      if (name.regionMatches(true, 0, IDENTITY_HEADER_PREFIX, 0, IDENTITY_HEADER_PREFIX.length())) {
+        spoofed.add(name);
+      }
+    }
+    if (spoofed.isEmpty()) {
+      return exchange;
     }
+    ServerHttpRequest cleaned = exchange.getRequest().mutate()
+        .headers(h -> spoofed.forEach(h::remove))
+        .build();
+    return exchange.mutate().request(cleaned).build();
   }
 }
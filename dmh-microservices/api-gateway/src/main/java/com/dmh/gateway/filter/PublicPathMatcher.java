@@ -0,0 +1,47 @@
+package com.dmh.gateway.filter;
+
+import com.dmh.gateway.config.PublicPathsProperties;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Classifies request paths as public or protected.
+ * <p>
+ * The configured patterns are compiled once at startup. Literal paths ("/auth/login") go into a hash set and are
+ * answered with one lookup; only patterns with wildcards are kept as {@link PathPattern}s, which match against the
+ * already-parsed {@link PathContainer} of the request instead of re-tokenizing the pattern and the path on every
+ * call like {@code AntPathMatcher}.
+ */
+@Component
+public class PublicPathMatcher {
+
+  private final Set<String> literalPaths;
+  private final PathPattern[] patterns;
+
+  public PublicPathMatcher(PublicPathsProperties properties) {
+    PathPatternParser parser = PathPatternParser.defaultInstance;
+    List<PathPattern> compiled = properties.getPublicPaths().stream().map(parser::parse).toList();
+    this.literalPaths = Set.copyOf(compiled.stream()
+        .filter(p -> !p.hasPatternSyntax())
+        .map(PathPattern::getPatternString)
+        .toList());
+    this.patterns = compiled.stream().filter(PathPattern::hasPatternSyntax).toArray(PathPattern[]::new);
+  }
+
+  public boolean isPublic(PathContainer path) {
+    if (literalPaths.contains(path.value())) {
+      return true;
+    }
+    for (PathPattern pattern : patterns) {
+      if (pattern.matches(path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,70 @@
+package com.dmh.gateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// per-route token-bucket limits (dmh.rate-limit); routes without an entry use the default limit
+@Component
+@ConfigurationProperties(prefix = "dmh.rate-limit")
+public class RateLimitProperties {
+
+  private Limit defaultLimit = new Limit();
+  private Map<String, Limit> routes = new HashMap<>();
+  // upper bound on live buckets (one per route and client key); the least recently used are evicted first
+  private long maxBuckets = 100_000;
+
+  public Limit limitFor(String routeId) {
+    return routes.getOrDefault(routeId, defaultLimit);
+  }
+
+  public Limit getDefaultLimit() {
+    return defaultLimit;
+  }
+
+  public void setDefaultLimit(Limit defaultLimit) {
+    this.defaultLimit = defaultLimit;
+  }
+
+  public Map<String, Limit> getRoutes() {
+    return routes;
+  }
+
+  public void setRoutes(Map<String, Limit> routes) {
+    this.routes = routes;
+  }
+
+  public long getMaxBuckets() {
+    return maxBuckets;
+  }
+
+  public void setMaxBuckets(long maxBuckets) {
+    this.maxBuckets = maxBuckets;
+  }
+
+  public static class Limit {
+
+    // tokens added per second
+    private int replenishRate = 20;
+    // bucket size: requests allowed in a burst
+    private int burstCapacity = 40;
+
+    public int getReplenishRate() {
+      return replenishRate;
+    }
+
+    public void setReplenishRate(int replenishRate) {
+      this.replenishRate = replenishRate;
+    }
+
+    public int getBurstCapacity() {
+      return burstCapacity;
+    }
+
+    public void setBurstCapacity(int burstCapacity) {
+      this.burstCapacity = burstCapacity;
+    }
+  }
+}
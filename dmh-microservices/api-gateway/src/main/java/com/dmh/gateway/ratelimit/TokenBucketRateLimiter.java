@@ -0,0 +1,112 @@
+package com.dmh.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory {@link RateLimiter} with one token bucket per route and client key.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding its "theoretical arrival time" (GCRA, equivalent to a token
+ * bucket): a request is admitted by advancing it one emission interval with a CAS, and rejected when that would put it
+ * more than {@code burstCapacity} intervals ahead of now. No locks, no allocation per request and no blocking, so it
+ * is evaluated inline on the event loop. Idle buckets are evicted once they would be full again anyway, and the
+ * number of live buckets is capped by {@code dmh.rate-limit.max-buckets} (least recently used first), so a flood of
+ * distinct client keys cannot grow the map without bound. An evicted bucket simply starts full again.
+ * <p>
+ * Limits are per gateway instance. The routes only depend on the {@link RateLimiter} interface, so a shared limit
+ * (e.g. Spring Cloud Gateway's {@code RedisRateLimiter}) means registering that bean in place of this one.
+ */
+@Component
+public class TokenBucketRateLimiter implements RateLimiter<RateLimitProperties.Limit> {
+
+  private final RateLimitProperties properties;
+  private final Cache<String, Bucket> buckets;
+
+  public TokenBucketRateLimiter(RateLimitProperties properties) {
+    this.properties = properties;
+    this.buckets = Caffeine.newBuilder()
+        .maximumSize(properties.getMaxBuckets())
+        .expireAfterAccess(Duration.ofMinutes(5))
+        .build();
+  }
+
+  @Override
+  public Mono<Response> isAllowed(String routeId, String id) {
+    RateLimitProperties.Limit limit = properties.limitFor(routeId);
+    Bucket bucket = buckets.get(routeId + ':' + id,
+        key -> new Bucket(limit.getReplenishRate(), limit.getBurstCapacity()));
+    long result = bucket.tryAcquire(System.nanoTime());
+
+    if (result >= 0) {
+      return Mono.just(new Response(true, Map.of(
+          "X-RateLimit-Remaining", String.valueOf(result),
+          "X-RateLimit-Burst-Capacity", String.valueOf(limit.getBurstCapacity()))));
+    }
+    return Mono.just(new Response(false, Map.of(
+        "Retry-After", String.valueOf(retryAfterSeconds(-result)),
+        "X-RateLimit-Remaining", "0",
+        "X-RateLimit-Burst-Capacity", String.valueOf(limit.getBurstCapacity()))));
+  }
+
+  // whole seconds, rounded up and at least 1: Retry-After has no sub-second form and 0 would invite an immediate retry
+  static long retryAfterSeconds(long waitNanos) {
+    return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+  }
+
+  long bucketCount() {
+    buckets.cleanUp();
+    return buckets.estimatedSize();
+  }
+
+  @Override
+  public Map<String, RateLimitProperties.Limit> getConfig() {
+    return properties.getRoutes();
+  }
+
+  @Override
+  public Class<RateLimitProperties.Limit> getConfigClass() {
+    return RateLimitProperties.Limit.class;
+  }
+
+  @Override
+  public RateLimitProperties.Limit newConfig() {
+    return new RateLimitProperties.Limit();
+  }
+
+  static final class Bucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    Bucket(int replenishRate, int burstCapacity) {
+      this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, replenishRate);
+      this.burstNanos = intervalNanos * Math.max(1, burstCapacity);
+    }
+
+    /**
+     * @return the tokens left after taking one, or, when rejected, minus the nanoseconds until one is available
+     */
+    long tryAcquire(long now) {
+      while (true) {
+        long tat = theoreticalArrival.get();
+        long next = (tat == Long.MIN_VALUE || tat - now < 0 ? now : tat) + intervalNanos;
+        long ahead = next - now;
+        if (ahead > burstNanos) {
+          return -(ahead - burstNanos);
+        }
+        if (theoreticalArrival.compareAndSet(tat, next)) {
+          return (burstNanos - ahead) / intervalNanos;
+        }
+      }
+    }
+  }
+}
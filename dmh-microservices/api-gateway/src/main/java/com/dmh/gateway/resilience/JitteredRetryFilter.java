@@ -0,0 +1,53 @@
+package com.dmh.gateway.resilience;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.io.IOException;
+
+/**
+ * Retries GET requests that failed before any response was received (connection refused/reset, connect timeout,
+ * response timeout) with exponential backoff plus jitter. Once the response is committed part of it may already be
+ * on its way to the client, so a failure after that point (e.g. a connection reset mid-body) is never retried. The built-in Retry filter has no jitter, so synchronized
+ * clients would retry in lockstep against a struggling instance.
+ * <p>
+ * Other methods are never retried: transfers and income are not idempotent. Each retry goes back through the load
+ * balancer, so it usually lands on another instance.
+ */
+public class JitteredRetryFilter implements GatewayFilter {
+
+  private final RetryBackoffSpec retry;
+
+  public JitteredRetryFilter(ResilienceProperties.Policy policy) {
+    this.retry = Retry.backoff(policy.getRetries(), policy.getFirstBackoff())
+        .maxBackoff(policy.getMaxBackoff())
+        .jitter(policy.getJitter())
+        .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+    if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+      return chain.filter(exchange);
+    }
+    return Mono.defer(() -> {
+      ServerWebExchangeUtils.reset(exchange);
+      return chain.filter(exchange);
+    }).retryWhen(retry.filter(error -> !exchange.getResponse().isCommitted() && isRetryable(error)));
+  }
+
+  private static boolean isRetryable(Throwable error) {
+    if (error instanceof ResponseStatusException) {
+      return ((ResponseStatusException) error).getStatusCode() == HttpStatus.GATEWAY_TIMEOUT;
+    }
+    return error instanceof IOException || error.getCause() instanceof IOException;
+  }
+}
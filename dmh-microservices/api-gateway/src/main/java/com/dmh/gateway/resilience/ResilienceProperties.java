@@ -0,0 +1,126 @@
+package com.dmh.gateway.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// per-route timeouts and GET retries (dmh.resilience); a route entry only overrides the settings it declares, the
+// rest come from the default policy. Circuit breaker thresholds live in the standard
+// resilience4j.circuitbreaker.instances.<route id> properties.
+@Component
+@ConfigurationProperties(prefix = "dmh.resilience")
+public class ResilienceProperties {
+
+  private Policy defaultPolicy = Policy.defaults();
+  private Map<String, Policy> routes = new HashMap<>();
+
+  public Policy policyFor(String routeId) {
+    Policy route = routes.get(routeId);
+    return route != null ? route.over(defaultPolicy) : defaultPolicy;
+  }
+
+  public Policy getDefaultPolicy() {
+    return defaultPolicy;
+  }
+
+  public void setDefaultPolicy(Policy defaultPolicy) {
+    this.defaultPolicy = defaultPolicy;
+  }
+
+  public Map<String, Policy> getRoutes() {
+    return routes;
+  }
+
+  public void setRoutes(Map<String, Policy> routes) {
+    this.routes = routes;
+  }
+
+  // unset (null) settings are taken from the default policy, see over()
+  public static class Policy {
+
+    private Duration connectTimeout;
+    private Duration responseTimeout;
+    // extra attempts for GET requests that fail before a response (0 disables retries)
+    private Integer retries;
+    private Duration firstBackoff;
+    private Duration maxBackoff;
+    // fraction of each backoff that is randomized so retries from many clients do not line up
+    private Double jitter;
+
+    static Policy defaults() {
+      Policy policy = new Policy();
+      policy.connectTimeout = Duration.ofSeconds(1);
+      policy.responseTimeout = Duration.ofSeconds(5);
+      policy.retries = 2;
+      policy.firstBackoff = Duration.ofMillis(50);
+      policy.maxBackoff = Duration.ofMillis(500);
+      policy.jitter = 0.5;
+      return policy;
+    }
+
+    /**
+     * @return a copy of this policy with every unset setting taken from {@code base}
+     */
+    Policy over(Policy base) {
+      Policy merged = new Policy();
+      merged.connectTimeout = connectTimeout != null ? connectTimeout : base.connectTimeout;
+      merged.responseTimeout = responseTimeout != null ? responseTimeout : base.responseTimeout;
+      merged.retries = retries != null ? retries : base.retries;
+      merged.firstBackoff = firstBackoff != null ? firstBackoff : base.firstBackoff;
+      merged.maxBackoff = maxBackoff != null ? maxBackoff : base.maxBackoff;
+      merged.jitter = jitter != null ? jitter : base.jitter;
+      return merged;
+    }
+
+    public Duration getConnectTimeout() {
+      return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+      this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getResponseTimeout() {
+      return responseTimeout;
+    }
+
+    public void setResponseTimeout(Duration responseTimeout) {
+      this.responseTimeout = responseTimeout;
+    }
+
+    public Integer getRetries() {
+      return retries;
+    }
+
+    public void setRetries(Integer retries) {
+      this.retries = retries;
+    }
+
+    public Duration getFirstBackoff() {
+      return firstBackoff;
+    }
+
+    public void setFirstBackoff(Duration firstBackoff) {
+      this.firstBackoff = firstBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+      return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+      this.maxBackoff = maxBackoff;
+    }
+
+    public Double getJitter() {
+      return jitter;
+    }
+
+    public void setJitter(Double jitter) {
+      this.jitter = jitter;
+    }
+  }
+}
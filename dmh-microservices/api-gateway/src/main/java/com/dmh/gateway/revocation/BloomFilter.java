@@ -0,0 +1,95 @@
+package com.dmh.gateway.revocation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter of strings.
+ * <p>
+ * Sized for {@code expectedInsertions} at a target false-positive rate {@code p}:
+ * {@code m = -n ln p / (ln 2)^2} bits and {@code k = (m / n) ln 2} hash functions. At p = 1% that is ~9.6 bits and
+ * 7 hashes per entry, i.e. about 1.2 MB per million revoked tokens (0.1% costs ~1.8 MB with 10 hashes). Filling it
+ * beyond {@code expectedInsertions} raises the false-positive rate, so it is rebuilt with a fresh size instead.
+ * <p>
+ * The k indexes come from double hashing ({@code h1 + i * h2}) of one 64-bit hash. The bits live in an
+ * {@link AtomicLongArray}, so {@link #mightContain} is lock-free and safe while {@link #put} runs on another thread.
+ */
+public class BloomFilter {
+
+  private final AtomicLongArray bits;
+  private final long bitCount;
+  private final int hashCount;
+
+  public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+    int n = Math.max(1, expectedInsertions);
+    long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    int words = (int) Math.max(1, (m + 63) / 64);
+    this.bits = new AtomicLongArray(words);
+    this.bitCount = (long) words * 64;
+    this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+  }
+
+  public static BloomFilter of(Collection<String> values, int minimumCapacity, double falsePositiveRate) {
+    BloomFilter filter = new BloomFilter(Math.max(minimumCapacity, values.size()), falsePositiveRate);
+    values.forEach(filter::put);
+    return filter;
+  }
+
+  public void put(String value) {
+    long hash = hash64(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashCount; i++) {
+      long index = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+      long mask = 1L << index;
+      int word = (int) (index >>> 6);
+      long current;
+      do {
+        current = bits.get(word);
+        if ((current & mask) != 0) {
+          break;
+        }
+      } while (!bits.compareAndSet(word, current, current | mask));
+    }
+  }
+
+  /**
+   * @return false if the value was definitely never added; true if it probably was
+   */
+  public boolean mightContain(String value) {
+    long hash = hash64(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashCount; i++) {
+      long index = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+      if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public long sizeInBytes() {
+    return bitCount / 8;
+  }
+
+  public int hashCount() {
+    return hashCount;
+  }
+
+  // FNV-1a over the UTF-8 bytes followed by a murmur3 finalizer to spread the bits across both halves
+  private static long hash64(String value) {
+    long h = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      h ^= b;
+      h *= 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb93fe1a85a1bL;
+    h ^= h >>> 33;
+    return h;
+  }
+}
@@ -0,0 +1,103 @@
+package com.dmh.gateway.revocation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Edge check for logged-out tokens.
+ * <p>
+ * Keeps a Bloom filter of the revoked token ids published by user-service ({@code /internal/revocations}) and
+ * rebuilds it every {@code dmh.revocation.refresh-interval-ms}; a rebuild swaps the reference, so readers never
+ * block. A miss (the common case) is answered in memory. A hit is only "probably revoked", so it is confirmed with
+ * an exact call to user-service before the request is rejected.
+ * <p>
+ * Logouts newer than the last rebuild are not in the filter yet; those tokens are still rejected by the services
+ * themselves, which remain the source of truth. Until the first rebuild succeeds every token passes through.
+ * <p>
+ * Both calls carry the secret shared with user-service ({@code dmh.revocation.internal-token}) in
+ * {@value #INTERNAL_TOKEN_HEADER}.
+ */
+@Component
+public class RevokedTokenRegistry {
+
+  private static final Logger log = LoggerFactory.getLogger(RevokedTokenRegistry.class);
+  private static final Duration CALL_TIMEOUT = Duration.ofSeconds(2);
+  static final String INTERNAL_TOKEN_HEADER = "X-Internal-Token";
+
+  private final WebClient webClient;
+  private final boolean enabled;
+  private final int expectedInsertions;
+  private final double falsePositiveRate;
+
+  private volatile BloomFilter filter;
+
+  public RevokedTokenRegistry(WebClient.Builder loadBalancedWebClientBuilder,
+                              @Value("${dmh.users.serviceId:USER-SERVICE}") String usersService,
+                              @Value("${dmh.revocation.enabled:true}") boolean enabled,
+                              @Value("${dmh.revocation.expected-insertions:100000}") int expectedInsertions,
+                              @Value("${dmh.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                              @Value("${dmh.revocation.internal-token:}") String internalToken) {
+    this.webClient = loadBalancedWebClientBuilder.baseUrl("lb://" + usersService)
+        .defaultHeader(INTERNAL_TOKEN_HEADER, internalToken)
+        .build();
+    this.enabled = enabled;
+    this.expectedInsertions = expectedInsertions;
+    this.falsePositiveRate = falsePositiveRate;
+  }
+
+  /**
+   * @return true only if the token id is confirmed as revoked
+   */
+  public Mono<Boolean> isRevoked(String tokenId) {
+    BloomFilter current = filter;
+    if (current == null || !current.mightContain(tokenId)) {
+      return Mono.just(false);
+    }
+    return webClient.get()
+        .uri("/internal/revocations/{tokenId}", tokenId)
+        .retrieve()
+        .bodyToMono(new ParameterizedTypeReference<Map<String, Boolean>>() {})
+        .timeout(CALL_TIMEOUT)
+        .map(body -> Boolean.TRUE.equals(body.get("revoked")))
+        // the filter already says "probably revoked": fail closed if it cannot be confirmed
+        .onErrorReturn(true);
+  }
+
+  /**
+   * @return the filter built by the last successful refresh, or {@code null} before the first one
+   */
+  BloomFilter currentFilter() {
+    return filter;
+  }
+
+  @Scheduled(fixedDelayString = "${dmh.revocation.refresh-interval-ms:30000}")
+  public void refresh() {
+    if (!enabled) {
+      return;
+    }
+    webClient.get()
+        .uri("/internal/revocations")
+        .retrieve()
+        // a JSON array of ids; decoding it as String would yield the raw body as a single element
+        .bodyToMono(new ParameterizedTypeReference<List<String>>() {})
+        .timeout(CALL_TIMEOUT)
+        .subscribe(
+            ids -> {
+              BloomFilter rebuilt = BloomFilter.of(ids, expectedInsertions, falsePositiveRate);
+              filter = rebuilt;
+              log.debug("Revocation filter rebuilt: {} ids, {} bytes, {} hashes",
+                  ids.size(), rebuilt.sizeInBytes(), rebuilt.hashCount());
+            },
+            e -> log.warn("Revocation filter refresh failed, keeping the previous one: {}", e.getMessage()));
+  }
+}
@@ -0,0 +1,134 @@
+package com.dmh.gateway;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes one service to a stub that never answers in time and another to a healthy stub: the slow route must time
+ * out and trip its own breaker while the healthy route keeps answering at normal latency.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "eureka.client.enabled=false",
+    "jwt.secret=" + SlowBackendIsolationTest.SECRET,
+    "dmh.revocation.enabled=false",
+    "dmh.transactions.serviceId=slow-transactions",
+    "dmh.accounts.serviceId=healthy-accounts",
+    "dmh.resilience.routes.transactions.response-timeout=300ms",
+    "dmh.resilience.routes.transactions.retries=0",
+    "dmh.rate-limit.default-limit.replenish-rate=1000",
+    "dmh.rate-limit.default-limit.burst-capacity=1000",
+    "dmh.rate-limit.routes.transactions.replenish-rate=1000",
+    "dmh.rate-limit.routes.transactions.burst-capacity=1000",
+    "resilience4j.circuitbreaker.instances.transactions.sliding-window-size=6",
+    "resilience4j.circuitbreaker.instances.transactions.minimum-number-of-calls=6",
+    "resilience4j.circuitbreaker.instances.transactions.wait-duration-in-open-state=1m"
+})
+class SlowBackendIsolationTest {
+
+  static final String SECRET = "c2xvdy1iYWNrZW5kLWlzb2xhdGlvbi10ZXN0LXNlY3JldA==";
+  private static final AtomicInteger SLOW_CALLS = new AtomicInteger();
+
+  private static final DisposableServer SLOW = HttpServer.create().port(0)
+      .handle((request, response) -> {
+        SLOW_CALLS.incrementAndGet();
+        return Mono.delay(Duration.ofSeconds(5)).then(response.sendString(Mono.just("[]")).then());
+      })
+      .bindNow();
+  private static final DisposableServer HEALTHY = HttpServer.create().port(0)
+      .handle((request, response) -> response
+          .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+          .sendString(Mono.just("{\"id\":1,\"cvu\":\"0000000000000000000001\",\"alias\":\"a.b.c\",\"balance\":10}"))
+          .then())
+      .bindNow();
+
+  @Autowired
+  private WebTestClient client;
+
+  @DynamicPropertySource
+  static void stubs(DynamicPropertyRegistry registry) {
+    registry.add("spring.cloud.discovery.client.simple.instances.slow-transactions[0].uri",
+        () -> "http://localhost:" + SLOW.port());
+    registry.add("spring.cloud.discovery.client.simple.instances.healthy-accounts[0].uri",
+        () -> "http://localhost:" + HEALTHY.port());
+  }
+
+  @AfterAll
+  static void stopStubs() {
+    SLOW.disposeNow();
+    HEALTHY.disposeNow();
+  }
+
+  @Test
+  void slowServiceDoesNotDegradeOtherRoutes() {
+    String token = "Bearer " + Jwts.builder()
+        .setSubject("owner@example.com")
+        .claim("id", 1)
+        .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)))
+        .compact();
+    WebTestClient timed = client.mutate().responseTimeout(Duration.ofSeconds(10)).build();
+    // warm-up: the first call through a route pays for load-balancer and connection pool setup
+    assertThat(status(timed, "/accounts/1", token)).isEqualTo(HttpStatus.OK);
+
+    // saturate the slow route with concurrent calls and, while they are in flight, use the healthy one
+    Mono<List<HttpStatus>> slowCalls = Flux.range(0, 6)
+        .flatMap(i -> Mono.fromCallable(() -> status(timed, "/accounts/1/activity", token)))
+        .collectList()
+        .subscribeOn(Schedulers.boundedElastic())
+        .cache();
+    slowCalls.subscribe();
+
+    for (int i = 0; i < 5; i++) {
+      long start = System.nanoTime();
+      assertThat(status(timed, "/accounts/1", token)).isEqualTo(HttpStatus.OK);
+      assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(250));
+    }
+
+    // each slow call is cut at the route's response timeout and answered by the breaker fallback
+    assertThat(slowCalls.block(Duration.ofSeconds(10))).containsOnly(HttpStatus.SERVICE_UNAVAILABLE);
+
+    // the breaker is now open: further calls fail fast without reaching the slow service
+    int reached = SLOW_CALLS.get();
+    long start = System.nanoTime();
+    assertThat(status(timed, "/accounts/1/activity", token)).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(250));
+    assertThat(SLOW_CALLS.get()).isEqualTo(reached);
+
+    // and the healthy route is unaffected
+    assertThat(status(timed, "/accounts/1", token)).isEqualTo(HttpStatus.OK);
+
+    // the export has its own route without breaker: it still reaches the service and may take longer than 300ms
+    assertThat(status(timed, "/accounts/1/activity/export", token)).isEqualTo(HttpStatus.OK);
+    assertThat(SLOW_CALLS.get()).isEqualTo(reached + 1);
+  }
+
+  private static HttpStatus status(WebTestClient client, String path, String token) {
+    return HttpStatus.valueOf(client.get().uri(path)
+        .header(HttpHeaders.AUTHORIZATION, token)
+        .exchange()
+        .returnResult(String.class)
+        .getStatus()
+        .value());
+  }
+}
@@ -0,0 +1,125 @@
+package com.dmh.gateway.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DashboardControllerTest {
+
+  private static final String AUTHORIZATION = "Bearer user-7";
+  private static final Duration BACKEND_LATENCY = Duration.ofMillis(100);
+
+  private final AtomicInteger calls = new AtomicInteger();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  // stands in for the three services behind the load balancer, keyed by service id and path
+  private final Map<String, Function<ClientRequest, Mono<ClientResponse>>> backends = new HashMap<>();
+
+  {
+    backends.put("ACCOUNT-SERVICE/accounts/7", request -> json("{\"id\":7,\"balance\":10}"));
+    backends.put("TRANSACTION-SERVICE/accounts/7/transactions", request -> json("[{\"id\":1}]"));
+    backends.put("CARD-SERVICE/accounts/7/cards", request -> json("[{\"id\":2}]"));
+    backends.put("TRANSACTION-SERVICE/accounts/7/transferences", request -> json("[{\"cvu\":\"123\"}]"));
+  }
+
+  @Test
+  void theFourSectionsAreFetchedInParallel() {
+    get(7, "7").expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.account.balance").isEqualTo(10)
+        .jsonPath("$.lastTransactions[0].id").isEqualTo(1)
+        .jsonPath("$.cards[0].id").isEqualTo(2)
+        .jsonPath("$.lastRecipients[0].cvu").isEqualTo("123")
+        .jsonPath("$.unavailable").isEmpty();
+
+    assertThat(calls).hasValue(4);
+    // every branch was in flight before the first one answered
+    assertThat(maxInFlight).hasValue(4);
+  }
+
+  @Test
+  void aBranchThatTimesOutOnlyEmptiesItsSection() {
+    backends.put("CARD-SERVICE/accounts/7/cards", request -> Mono.never());
+
+    get(7, "7").expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.account.balance").isEqualTo(10)
+        .jsonPath("$.lastTransactions[0].id").isEqualTo(1)
+        .jsonPath("$.cards").doesNotExist()
+        .jsonPath("$.lastRecipients[0].cvu").isEqualTo("123")
+        .jsonPath("$.unavailable").isEqualTo("cards");
+  }
+
+  @Test
+  void aFailingBranchIsReportedUnavailable() {
+    backends.put("TRANSACTION-SERVICE/accounts/7/transferences",
+        request -> Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+
+    get(7, "7").expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.account.balance").isEqualTo(10)
+        .jsonPath("$.lastRecipients").doesNotExist()
+        .jsonPath("$.unavailable").isEqualTo("lastRecipients");
+  }
+
+  @Test
+  void everyBranchDownIsServiceUnavailable() {
+    backends.replaceAll((path, backend) -> request -> Mono.error(new IllegalStateException("connection refused")));
+
+    get(7, "7").expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+        .expectBody()
+        .jsonPath("$.unavailable.length()").isEqualTo(4);
+  }
+
+  @Test
+  void anotherUsersDashboardIsForbiddenWithoutCallingTheServices() {
+    get(7, "8").expectStatus().isForbidden();
+
+    assertThat(calls).hasValue(0);
+  }
+
+  private WebTestClient.ResponseSpec get(long accountId, String userId) {
+    return WebTestClient.bindToController(controller()).build()
+        .get().uri("/accounts/{id}/dashboard", accountId)
+        .header(HttpHeaders.AUTHORIZATION, AUTHORIZATION)
+        .header("X-User-Id", userId)
+        .exchange();
+  }
+
+  private DashboardController controller() {
+    WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+      calls.incrementAndGet();
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      assertThat(request.headers().getFirst(HttpHeaders.AUTHORIZATION)).isEqualTo(AUTHORIZATION);
+      String key = request.url().getHost() + request.url().getPath();
+      return Mono.delay(BACKEND_LATENCY)
+          .then(backends.getOrDefault(key, r -> Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build()))
+              .apply(request))
+          .doFinally(signal -> inFlight.decrementAndGet());
+    });
+    return new DashboardController(builder, Duration.ofMillis(500), "ACCOUNT-SERVICE", "CARD-SERVICE",
+        "TRANSACTION-SERVICE");
+  }
+
+  private static Mono<ClientResponse> json(String body) {
+    return Mono.just(ClientResponse.create(HttpStatus.OK)
+        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+        .body(body)
+        .build());
+  }
+}
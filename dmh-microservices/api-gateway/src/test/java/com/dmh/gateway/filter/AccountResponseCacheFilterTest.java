@@ -0,0 +1,161 @@
+package com.dmh.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountResponseCacheFilterTest {
+
+  private final AccountResponseCacheFilter filter = new AccountResponseCacheFilter(60, 100);
+  private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+  // stands in for the proxied service: every call returns a new body, so a cached answer is easy to tell apart
+  private final GatewayFilterChain upstream = exchange -> write(exchange.getResponse(), HttpStatus.OK);
+
+  @Test
+  void ownerReadIsServedFromTheCacheWithAnETag() {
+    MockServerWebExchange first = get("/accounts/7", "7");
+    MockServerWebExchange second = get("/accounts/7", "7");
+
+    assertThat(first.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":1}");
+    assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":1}");
+    assertThat(upstreamCalls).hasValue(1);
+    assertThat(second.getResponse().getHeaders().getETag()).isEqualTo(first.getResponse().getHeaders().getETag());
+    assertThat(second.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    assertThat(second.getResponse().getHeaders().getCacheControl()).isEqualTo("private, no-cache");
+  }
+
+  @Test
+  void matchingIfNoneMatchIsAnsweredWith304() {
+    String etag = get("/accounts/7/cards", "7").getResponse().getHeaders().getETag();
+
+    MockServerWebExchange revalidated = exchange(MockServerHttpRequest.get("/accounts/7/cards")
+        .header("X-User-Id", "7")
+        .header(HttpHeaders.IF_NONE_MATCH, "W/" + etag));
+    filter.filter(revalidated, upstream).block();
+
+    assertThat(revalidated.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    assertThat(revalidated.getResponse().getBodyAsString().block()).isEmpty();
+    assertThat(upstreamCalls).hasValue(1);
+  }
+
+  @Test
+  void staleETagAfterAWriteGetsTheNewBody() {
+    String etag = get("/accounts/7", "7").getResponse().getHeaders().getETag();
+    filter.filter(MockServerWebExchange.from(MockServerHttpRequest.post("/accounts/7/transferences")), upstream)
+        .block();
+
+    // the upstream body did change, so the refreshed entry must not match the stale ETag
+    MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/accounts/7")
+        .header("X-User-Id", "7")
+        .header(HttpHeaders.IF_NONE_MATCH, etag));
+    filter.filter(exchange, upstream).block();
+
+    assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":3}");
+  }
+
+  @Test
+  void onlyTheAccountOwnerIsCached() {
+    get("/accounts/7", "7");
+
+    MockServerWebExchange other = get("/accounts/7", "8");
+    MockServerWebExchange anonymous = exchange(MockServerHttpRequest.get("/accounts/7"));
+    filter.filter(anonymous, upstream).block();
+
+    // neither is served the owner's entry, and neither stores one
+    assertThat(other.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":2}");
+    assertThat(other.getResponse().getHeaders().getETag()).isNull();
+    assertThat(anonymous.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":3}");
+    assertThat(get("/accounts/7", "8").getResponse().getBodyAsString().block()).isEqualTo("{\"call\":4}");
+    assertThat(get("/accounts/7", "7").getResponse().getBodyAsString().block()).isEqualTo("{\"call\":1}");
+  }
+
+  @Test
+  void writesInvalidateOnlyTheirAccount() {
+    get("/accounts/7", "7");
+    get("/accounts/7/transactions", "7");
+    get("/accounts/8", "8");
+
+    filter.filter(MockServerWebExchange.from(MockServerHttpRequest.patch("/accounts/7")), upstream).block();
+    int afterWrite = upstreamCalls.get();
+
+    assertThat(get("/accounts/7", "7").getResponse().getBodyAsString().block())
+        .isEqualTo("{\"call\":" + (afterWrite + 1) + "}");
+    assertThat(get("/accounts/7/transactions", "7").getResponse().getBodyAsString().block())
+        .isEqualTo("{\"call\":" + (afterWrite + 2) + "}");
+    assertThat(get("/accounts/8", "8").getResponse().getBodyAsString().block()).isEqualTo("{\"call\":3}");
+  }
+
+  @Test
+  void queryStringsBypassTheCache() {
+    get("/accounts/7?x=1", "7");
+    get("/accounts/7?x=1", "7");
+    get("/accounts/7?x=2", "7");
+
+    assertThat(upstreamCalls).hasValue(3);
+    // the plain path is cached separately and unaffected
+    assertThat(get("/accounts/7", "7").getResponse().getBodyAsString().block()).isEqualTo("{\"call\":4}");
+    assertThat(get("/accounts/7", "7").getResponse().getBodyAsString().block()).isEqualTo("{\"call\":4}");
+  }
+
+  @Test
+  void errorResponsesAreNotCached() {
+    GatewayFilterChain failing = exchange -> write(exchange.getResponse(), HttpStatus.INTERNAL_SERVER_ERROR);
+    MockServerWebExchange error = exchange(MockServerHttpRequest.get("/accounts/7").header("X-User-Id", "7"));
+    filter.filter(error, failing).block();
+
+    assertThat(error.getResponse().getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    assertThat(error.getResponse().getHeaders().getETag()).isNull();
+    assertThat(get("/accounts/7", "7").getResponse().getBodyAsString().block()).isEqualTo("{\"call\":2}");
+  }
+
+  @Test
+  void readInFlightDuringAWriteDoesNotResurrectTheEntry() {
+    // the read reaches the service before the write and its response arrives after the write completed
+    Sinks.Empty<Void> readAnswered = Sinks.empty();
+    GatewayFilterChain slow = exchange -> readAnswered.asMono()
+        .then(Mono.defer(() -> write(exchange.getResponse(), HttpStatus.OK)));
+    MockServerWebExchange read = exchange(MockServerHttpRequest.get("/accounts/7").header("X-User-Id", "7"));
+    Mono<Void> inFlight = filter.filter(read, slow).cache();
+    inFlight.subscribe();
+
+    filter.filter(MockServerWebExchange.from(MockServerHttpRequest.post("/accounts/7/transferences")), upstream)
+        .block();
+    readAnswered.tryEmitEmpty();
+    inFlight.block();
+
+    assertThat(read.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":2}");
+    // the response read before the write is not served afterwards
+    assertThat(get("/accounts/7", "7").getResponse().getBodyAsString().block()).isEqualTo("{\"call\":3}");
+  }
+
+  private MockServerWebExchange get(String path, String userId) {
+    MockServerWebExchange exchange = exchange(MockServerHttpRequest.get(path).header("X-User-Id", userId));
+    filter.filter(exchange, upstream).block();
+    return exchange;
+  }
+
+  private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+    return MockServerWebExchange.from(request);
+  }
+
+  private Mono<Void> write(ServerHttpResponse response, HttpStatus status) {
+    byte[] body = ("{\"call\":" + upstreamCalls.incrementAndGet() + "}").getBytes(StandardCharsets.UTF_8);
+    response.setStatusCode(status);
+    response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+    return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+  }
+}
@@ -0,0 +1,93 @@
+package com.dmh.gateway.filter;
+
+import com.dmh.gateway.config.PublicPathsProperties;
+import com.dmh.gateway.config.RateLimitConfig;
+import com.dmh.gateway.revocation.RevokedTokenRegistry;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTest {
+
+  private static final byte[] SECRET = new byte[32];
+  private static final InetSocketAddress CLIENT = new InetSocketAddress("203.0.113.7", 50000);
+
+  private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(
+      Base64.getEncoder().encodeToString(SECRET), publicPaths(), registry());
+  private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+  private final WebFilterChain chain = exchange -> {
+    forwarded.set(exchange);
+    return Mono.empty();
+  };
+
+  @Test
+  void publicPathDropsClientSuppliedIdentityHeaders() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/auth/login")
+        .remoteAddress(CLIENT)
+        .header("X-User-Id", "42")
+        .header("x-user-email", "victim@example.com"));
+
+    filter.filter(exchange, chain).block();
+
+    assertThat(forwarded.get().getRequest().getHeaders().get("X-User-Id")).isNull();
+    assertThat(forwarded.get().getRequest().getHeaders().get("X-User-Email")).isNull();
+    String key = new RateLimitConfig().userKeyResolver().resolve(forwarded.get()).block();
+    assertThat(key).isEqualTo("ip:203.0.113.7");
+  }
+
+  @Test
+  void protectedPathReplacesSpoofedIdentityWithTheTokenClaims() {
+    String token = Jwts.builder()
+        .setSubject("owner@example.com")
+        .claim("id", 7)
+        .setId("jti-7")
+        .signWith(Keys.hmacShaKeyFor(SECRET))
+        .compact();
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/accounts/7")
+        .header("Authorization", "Bearer " + token)
+        .header("X-User-Id", "42")
+        .header("X-User-Role", "ADMIN"));
+
+    filter.filter(exchange, chain).block();
+
+    assertThat(forwarded.get().getRequest().getHeaders().get("X-User-Id")).containsExactly("7");
+    assertThat(forwarded.get().getRequest().getHeaders().get("X-User-Email")).containsExactly("owner@example.com");
+    assertThat(forwarded.get().getRequest().getHeaders().get("X-User-Role")).isNull();
+  }
+
+  @Test
+  void protectedPathWithoutTokenIsRejected() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/accounts/7")
+        .header("X-User-Id", "7"));
+
+    filter.filter(exchange, chain).block();
+
+    assertThat(forwarded.get()).isNull();
+    assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+  }
+
+  private static PublicPathMatcher publicPaths() {
+    PublicPathsProperties properties = new PublicPathsProperties();
+    properties.setPublicPaths(List.of("/auth/login", "/users/register"));
+    return new PublicPathMatcher(properties);
+  }
+
+  // never refreshed, so no token is considered revoked
+  private static RevokedTokenRegistry registry() {
+    return new RevokedTokenRegistry(WebClient.builder(), "USER-SERVICE", false, 1000, 0.01, "");
+  }
+}
@@ -0,0 +1,154 @@
+package com.dmh.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  void burstIsAdmittedThenRejected() {
+    TokenBucketRateLimiter.Bucket bucket = new TokenBucketRateLimiter.Bucket(1, 3);
+
+    assertThat(bucket.tryAcquire(0)).isEqualTo(2);
+    assertThat(bucket.tryAcquire(0)).isEqualTo(1);
+    assertThat(bucket.tryAcquire(0)).isEqualTo(0);
+    // the next token is one emission interval away
+    assertThat(bucket.tryAcquire(0)).isEqualTo(-SECOND);
+    // a rejection does not consume anything
+    assertThat(bucket.tryAcquire(SECOND / 4)).isEqualTo(-(SECOND - SECOND / 4));
+  }
+
+  @Test
+  void tokensRefillAtTheReplenishRate() {
+    TokenBucketRateLimiter.Bucket bucket = new TokenBucketRateLimiter.Bucket(2, 2);
+    bucket.tryAcquire(0);
+    bucket.tryAcquire(0);
+    assertThat(bucket.tryAcquire(0)).isNegative();
+
+    // 2 per second: one token every 500ms
+    assertThat(bucket.tryAcquire(SECOND / 2 - 1)).isNegative();
+    assertThat(bucket.tryAcquire(SECOND / 2)).isEqualTo(0);
+    assertThat(bucket.tryAcquire(SECOND / 2)).isNegative();
+
+    // idle for long enough the bucket is full again, never more than the burst
+    assertThat(bucket.tryAcquire(60 * SECOND)).isEqualTo(1);
+  }
+
+  @Test
+  void concurrentCallersNeverExceedTheBurst() throws Exception {
+    TokenBucketRateLimiter.Bucket bucket = new TokenBucketRateLimiter.Bucket(1, 100);
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<Integer>> admitted = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        admitted.add(pool.submit(() -> {
+          start.await();
+          int count = 0;
+          for (int i = 0; i < 100; i++) {
+            if (bucket.tryAcquire(0) >= 0) {
+              count++;
+            }
+          }
+          return count;
+        }));
+      }
+      start.countDown();
+      int total = 0;
+      for (Future<Integer> future : admitted) {
+        total += future.get(10, TimeUnit.SECONDS);
+      }
+      assertThat(total).isEqualTo(100);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void retryAfterIsRoundedUpToWholeSeconds() {
+    assertThat(TokenBucketRateLimiter.retryAfterSeconds(0)).isEqualTo(1);
+    assertThat(TokenBucketRateLimiter.retryAfterSeconds(1)).isEqualTo(1);
+    assertThat(TokenBucketRateLimiter.retryAfterSeconds(SECOND)).isEqualTo(1);
+    assertThat(TokenBucketRateLimiter.retryAfterSeconds(SECOND + 1)).isEqualTo(2);
+    assertThat(TokenBucketRateLimiter.retryAfterSeconds(5 * SECOND - 1)).isEqualTo(5);
+  }
+
+  @Test
+  void rejectedResponseCarriesRetryAfter() {
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(properties(Map.of()));
+
+    assertThat(allowed(limiter, "users", "user:1")).isTrue();
+    assertThat(allowed(limiter, "users", "user:1")).isTrue();
+    RateLimiter.Response rejected = limiter.isAllowed("users", "user:1").block();
+
+    assertThat(rejected.isAllowed()).isFalse();
+    assertThat(rejected.getHeaders())
+        .containsEntry("Retry-After", "1")
+        .containsEntry("X-RateLimit-Remaining", "0")
+        .containsEntry("X-RateLimit-Burst-Capacity", "2");
+  }
+
+  @Test
+  void limitsArePerRouteAndPerClient() {
+    RateLimitProperties properties = properties(Map.of("users", limit(1, 2)));
+    properties.setDefaultLimit(limit(10, 5));
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(properties);
+
+    assertThat(allowed(limiter, "users", "user:1")).isTrue();
+    assertThat(allowed(limiter, "users", "user:1")).isTrue();
+    assertThat(allowed(limiter, "users", "user:1")).isFalse();
+
+    // another client and another route have their own buckets
+    assertThat(allowed(limiter, "users", "user:2")).isTrue();
+    RateLimiter.Response accounts = limiter.isAllowed("accounts", "user:1").block();
+    assertThat(accounts.isAllowed()).isTrue();
+    // routes without an entry use the default limit
+    assertThat(accounts.getHeaders())
+        .containsEntry("X-RateLimit-Burst-Capacity", "5")
+        .containsEntry("X-RateLimit-Remaining", "4");
+  }
+
+  @Test
+  void liveBucketsAreCapped() {
+    RateLimitProperties properties = properties(Map.of());
+    properties.setMaxBuckets(10);
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(properties);
+
+    for (int i = 0; i < 1_000; i++) {
+      allowed(limiter, "users", "ip:10.0.0." + i);
+    }
+
+    assertThat(limiter.bucketCount()).isLessThanOrEqualTo(10);
+  }
+
+  private static boolean allowed(TokenBucketRateLimiter limiter, String routeId, String id) {
+    return limiter.isAllowed(routeId, id).block().isAllowed();
+  }
+
+  private static RateLimitProperties properties(Map<String, RateLimitProperties.Limit> routes) {
+    RateLimitProperties properties = new RateLimitProperties();
+    properties.setDefaultLimit(limit(1, 2));
+    properties.setRoutes(routes);
+    return properties;
+  }
+
+  private static RateLimitProperties.Limit limit(int replenishRate, int burstCapacity) {
+    RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+    limit.setReplenishRate(replenishRate);
+    limit.setBurstCapacity(burstCapacity);
+    return limit;
+  }
+}
@@ -0,0 +1,67 @@
+package com.dmh.gateway.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JitteredRetryFilterTest {
+
+  private final JitteredRetryFilter filter = new JitteredRetryFilter(policy());
+  private final AtomicInteger attempts = new AtomicInteger();
+
+  @Test
+  void retriesAGetThatFailedBeforeTheResponseWasCommitted() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/accounts/1/activity"));
+    GatewayFilterChain chain = ex -> attempts.incrementAndGet() < 3
+        ? Mono.error(new IOException("Connection refused"))
+        : Mono.empty();
+
+    StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+    assertThat(attempts).hasValue(3);
+  }
+
+  @Test
+  void doesNotRetryOnceTheResponseIsCommitted() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/accounts/1/activity/export"));
+    // part of the body already went out, then the upstream connection was reset
+    GatewayFilterChain chain = ex -> {
+      attempts.incrementAndGet();
+      return ex.getResponse().setComplete().then(Mono.error(new IOException("Connection reset by peer")));
+    };
+
+    StepVerifier.create(filter.filter(exchange, chain)).verifyError(IOException.class);
+
+    assertThat(attempts).hasValue(1);
+  }
+
+  @Test
+  void neverRetriesOtherMethods() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/accounts/1/transferences"));
+    GatewayFilterChain chain = ex -> {
+      attempts.incrementAndGet();
+      return Mono.error(new IOException("Connection refused"));
+    };
+
+    StepVerifier.create(filter.filter(exchange, chain)).verifyError(IOException.class);
+
+    assertThat(attempts).hasValue(1);
+  }
+
+  private static ResilienceProperties.Policy policy() {
+    ResilienceProperties.Policy policy = ResilienceProperties.Policy.defaults();
+    policy.setRetries(2);
+    policy.setFirstBackoff(Duration.ofMillis(1));
+    policy.setMaxBackoff(Duration.ofMillis(5));
+    return policy;
+  }
+}
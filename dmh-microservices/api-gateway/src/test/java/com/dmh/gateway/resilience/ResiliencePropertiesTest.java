@@ -0,0 +1,49 @@
+package com.dmh.gateway.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResiliencePropertiesTest {
+
+  @Test
+  void routeEntryOnlyOverridesWhatItDeclares() {
+    ResilienceProperties properties = bind(Map.of(
+        "dmh.resilience.default-policy.connect-timeout", "300ms",
+        "dmh.resilience.default-policy.retries", "3",
+        "dmh.resilience.default-policy.jitter", "0.2",
+        "dmh.resilience.routes.transactions.response-timeout", "8s",
+        "dmh.resilience.routes.transactions.retries", "1"));
+
+    ResilienceProperties.Policy transactions = properties.policyFor("transactions");
+
+    assertThat(transactions.getResponseTimeout()).isEqualTo(Duration.ofSeconds(8));
+    assertThat(transactions.getRetries()).isEqualTo(1);
+    // inherited from the configured default policy, not from the Java defaults
+    assertThat(transactions.getConnectTimeout()).isEqualTo(Duration.ofMillis(300));
+    assertThat(transactions.getJitter()).isEqualTo(0.2);
+    assertThat(transactions.getFirstBackoff()).isEqualTo(Duration.ofMillis(50));
+  }
+
+  @Test
+  void routeWithoutEntryUsesTheDefaultPolicy() {
+    ResilienceProperties properties = bind(Map.of("dmh.resilience.default-policy.response-timeout", "2s"));
+
+    ResilienceProperties.Policy users = properties.policyFor("users");
+
+    assertThat(users.getResponseTimeout()).isEqualTo(Duration.ofSeconds(2));
+    assertThat(users.getConnectTimeout()).isEqualTo(Duration.ofSeconds(1));
+    assertThat(users.getRetries()).isEqualTo(2);
+  }
+
+  private static ResilienceProperties bind(Map<String, String> values) {
+    Binder binder = new Binder(new MapConfigurationPropertySource(values));
+    return binder.bindOrCreate("dmh.resilience", Bindable.of(ResilienceProperties.class));
+  }
+}
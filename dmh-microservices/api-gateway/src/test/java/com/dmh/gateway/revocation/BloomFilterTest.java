@@ -0,0 +1,72 @@
+package com.dmh.gateway.revocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+  private static final int INSERTIONS = 100_000;
+  private static final int PROBES = 500_000;
+
+  @Test
+  void sizedAsDocumentedPerMillionEntries() {
+    BloomFilter onePercent = new BloomFilter(1_000_000, 0.01);
+    BloomFilter oneInAThousand = new BloomFilter(1_000_000, 0.001);
+
+    // m = -n ln p / (ln 2)^2: 9.59 bits per entry at 1%, 14.38 at 0.1%
+    assertThat(onePercent.sizeInBytes()).isEqualTo(1_198_136L);
+    assertThat(onePercent.hashCount()).isEqualTo(7);
+    assertThat(oneInAThousand.sizeInBytes()).isEqualTo(1_797_200L);
+    assertThat(oneInAThousand.hashCount()).isEqualTo(10);
+  }
+
+  @Test
+  void measuredFalsePositiveRateMatchesTheConfiguredOne() {
+    for (double rate : new double[]{0.01, 0.001}) {
+      BloomFilter filter = new BloomFilter(INSERTIONS, rate);
+      Random random = new Random(42);
+      tokenIds(random, INSERTIONS).forEach(filter::put);
+
+      assertThat(falsePositiveRate(filter, tokenIds(random, PROBES))).as("p = %s", rate)
+          .isBetween(rate * 0.7, rate * 1.3);
+    }
+  }
+
+  @Test
+  void addedIdsAreAlwaysFound() {
+    List<String> ids = tokenIds(new Random(7), INSERTIONS);
+    BloomFilter filter = BloomFilter.of(ids, 1_000, 0.01);
+
+    assertThat(ids).allMatch(filter::mightContain);
+  }
+
+  @Test
+  void fillingItBeyondItsCapacityRaisesTheRate() {
+    Random random = new Random(42);
+    BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+    tokenIds(random, 2 * INSERTIONS).forEach(filter::put);
+
+    // the reason a refresh with more revocations rebuilds the filter with a fresh size
+    assertThat(falsePositiveRate(filter, tokenIds(random, PROBES))).isGreaterThan(0.1);
+  }
+
+  // probes are drawn after the inserted ids from the same sequence, so none of them was added
+  private static double falsePositiveRate(BloomFilter filter, List<String> probes) {
+    return (double) probes.stream().filter(filter::mightContain).count() / probes.size();
+  }
+
+  // random UUIDs, the same shape as the jti claim
+  private static List<String> tokenIds(Random random, int count) {
+    List<String> ids = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      ids.add(new UUID(random.nextLong(), random.nextLong()).toString());
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,92 @@
+package com.dmh.gateway.revocation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevokedTokenRegistryTest {
+
+  private static final String SECRET = "internal-secret";
+
+  @Test
+  void refreshLoadsEveryIdOfTheJsonArray() throws InterruptedException {
+    RevokedTokenRegistry registry = registry("[\"jti-1\",\"jti-2\",\"jti-3\"]", "{\"revoked\":true}");
+
+    registry.refresh();
+    BloomFilter filter = awaitFilter(registry);
+
+    assertThat(filter.mightContain("jti-1")).isTrue();
+    assertThat(filter.mightContain("jti-2")).isTrue();
+    assertThat(filter.mightContain("jti-3")).isTrue();
+    assertThat(filter.mightContain("[\"jti-1\",\"jti-2\",\"jti-3\"]")).isFalse();
+  }
+
+  @Test
+  void revokedTokenIsConfirmedAndOthersPassWithoutACall() throws InterruptedException {
+    RevokedTokenRegistry registry = registry("[\"jti-1\"]", "{\"revoked\":true}");
+
+    registry.refresh();
+    awaitFilter(registry);
+
+    StepVerifier.create(registry.isRevoked("jti-1")).expectNext(true).verifyComplete();
+    StepVerifier.create(registry.isRevoked("jti-unknown")).expectNext(false).verifyComplete();
+  }
+
+  @Test
+  void callsCarryTheSharedSecret() throws InterruptedException {
+    RevokedTokenRegistry registry = registry("[\"jti-1\"]", "{\"revoked\":false}");
+    RevokedTokenRegistry withoutSecret = registry("[\"jti-1\"]", "{\"revoked\":false}", "");
+
+    registry.refresh();
+    withoutSecret.refresh();
+    awaitFilter(registry);
+
+    // the confirmation call is answered, so a false positive is let through
+    StepVerifier.create(registry.isRevoked("jti-1")).expectNext(false).verifyComplete();
+    assertThat(withoutSecret.currentFilter()).isNull();
+  }
+
+  @Test
+  void everyTokenPassesBeforeTheFirstRefresh() {
+    RevokedTokenRegistry registry = registry("[\"jti-1\"]", "{\"revoked\":true}");
+
+    StepVerifier.create(registry.isRevoked("jti-1")).expectNext(false).verifyComplete();
+  }
+
+  private static RevokedTokenRegistry registry(String listBody, String checkBody) {
+    return registry(listBody, checkBody, SECRET);
+  }
+
+  /**
+   * Registry whose user-service answers the list and the exact check with the given JSON bodies, and rejects calls
+   * without the shared secret like its security config does.
+   */
+  private static RevokedTokenRegistry registry(String listBody, String checkBody, String internalToken) {
+    WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+      if (!SECRET.equals(request.headers().getFirst(RevokedTokenRegistry.INTERNAL_TOKEN_HEADER))) {
+        return Mono.just(ClientResponse.create(HttpStatus.FORBIDDEN).build());
+      }
+      String body = request.url().getPath().equals("/internal/revocations") ? listBody : checkBody;
+      return Mono.just(ClientResponse.create(HttpStatus.OK)
+          .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+          .body(body)
+          .build());
+    });
+    return new RevokedTokenRegistry(builder, "USER-SERVICE", true, 1000, 0.01, internalToken);
+  }
+
+  private static BloomFilter awaitFilter(RevokedTokenRegistry registry) throws InterruptedException {
+    for (int i = 0; i < 100 && registry.currentFilter() == null; i++) {
+      Thread.sleep(20);
+    }
+    assertThat(registry.currentFilter()).as("filter rebuilt").isNotNull();
+    return registry.currentFilter();
+  }
+}
@@ -0,0 +1,54 @@
+package com.dmh.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write split between the primary database and a read replica, enabled with
+ * {@code dmh.datasource.replica.enabled=true}. Without it Spring Boot's single auto-configured pool is used.
+ * <p>
+ * Both pools are Hikari: the primary is configured through the usual {@code spring.datasource.*} and
+ * {@code spring.datasource.hikari.*} properties, the replica through {@code dmh.datasource.replica.*} (jdbc-url,
+ * username, password and any Hikari setting). Their metrics show up under {@code hikaricp.connections.*}, tagged with
+ * the pool name.
+ * <p>
+ * Routing is done by a {@link LazyConnectionDataSourceProxy}: the physical connection is only fetched on the first
+ * statement, once the transaction has marked it read-only, so {@code @Transactional(readOnly = true)} methods run on
+ * the replica and everything else (including Flyway) on the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "dmh.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("dmh.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(replica);
+        return routing;
+    }
+}
@@ -1,8 +1,11 @@
 package com.dmh.backend.repository;
 
+import com.dmh.backend.dto.CardResponse;
 import com.dmh.backend.model.Card;
-import com.dmh.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,9 +17,35 @@ import java.util.Optional;
 @Repository
 public interface CardRepository extends JpaRepository<Card, Long> {
 
-    List<Card> findByUser(User user);
+    /**
+     * Tarjetas de un usuario construidas directamente como DTO, sin cargar entidades ni el usuario.
+     *
+     * @param userId identificador del usuario
+     * @return tarjetas del usuario
+     */
+    @Query("select new com.dmh.backend.dto.CardResponse(c.id, c.cardNumber, c.holderName, c.expirationDate) "
+            + "from Card c where c.user.id = :userId order by c.id")
+    List<CardResponse> findResponsesByUserId(@Param("userId") Long userId);
 
-    Optional<Card> findByIdAndUser(Long id, User user);
+    /**
+     * Busca una tarjeta por su id y el id del usuario propietario, sin cargar antes el usuario.
+     *
+     * @param id     identificador de la tarjeta
+     * @param userId identificador del usuario
+     * @return la tarjeta si existe y pertenece al usuario
+     */
+    Optional<Card> findByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Elimina una tarjeta del usuario con una única sentencia {@code DELETE}.
+     *
+     * @param id     identificador de la tarjeta
+     * @param userId identificador del usuario
+     * @return cantidad de filas eliminadas: 0 si la tarjeta no existe o no pertenece al usuario
+     */
+    @Modifying
+    @Query("delete from Card c where c.id = :id and c.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
 
     boolean existsByCardNumber(String cardNumber);
 }
\ No newline at end of file
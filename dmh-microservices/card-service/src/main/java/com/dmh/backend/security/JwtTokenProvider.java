@@ -1,6 +1,9 @@
 package com.dmh.backend.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -8,11 +11,15 @@ import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Utility class for generating and validating JWT tokens.
@@ -20,6 +27,16 @@ import java.util.Date;
 @Component
 public class JwtTokenProvider {
 
+    /**
+     * Claim carrying the user id, read by {@link CustomUserDetails#fromClaims} and by the gateway.
+     */
+    public static final String CLAIM_USER_ID = "id";
+
+    /**
+     * Claim carrying the granted authorities (e.g. {@code ROLE_USER}).
+     */
+    public static final String CLAIM_ROLES = "roles";
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -28,14 +45,22 @@ public class JwtTokenProvider {
 
     private Key key;
 
+    /**
+     * Parser bound to the signing key. Built once: the parser is immutable and thread-safe, so every request reuses
+     * it instead of rebuilding it.
+     */
+    private JwtParser parser;
+
     @PostConstruct
     public void init() {
         byte[] keyBytes = Decoders.BASE64.decode(secret);
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     /**
-     * Generate a JWT for an authenticated user.
+     * Generate a JWT for an authenticated user. Besides the subject (email) the token carries a unique id (jti),
+     * the user id and the roles, so downstream services can build the principal from the signed claims alone.
      *
      * @param authentication the current authentication
      * @return a signed JWT
@@ -44,41 +69,45 @@ public class JwtTokenProvider {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
-        return Jwts.builder()
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        JwtBuilder builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userPrincipal.getUsername())
+                .claim(CLAIM_ROLES, roles)
                 .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+                .setExpiration(expiryDate);
+        if (userPrincipal instanceof CustomUserDetails details) {
+            builder.claim(CLAIM_USER_ID, details.getId());
+        }
+        return builder.signWith(key, SignatureAlgorithm.HS256).compact();
     }
 
     /**
-     * Extract email/username from the token subject.
+     * Parse and validate a token in a single pass (one signature check, one decode).
      *
      * @param token the JWT
-     * @return the subject (email)
+     * @return the token claims, or empty if the token is malformed, has an invalid signature or is expired
      */
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+    public Optional<Claims> parseClaims(String token) {
+        try {
+            return Optional.of(parser.parseClaimsJws(token).getBody());
+        } catch (JwtException | IllegalArgumentException ex) {
+            return Optional.empty();
+        }
     }
 
     /**
-     * Validate the given token and ensure it's not expired.
+     * Identifier used to revoke a token: its jti, or for tokens issued before the jti claim existed, its signature
+     * segment (unique per token).
      *
-     * @param token the JWT
-     * @return true if valid
+     * @param claims claims of the parsed token
+     * @param token  the raw JWT
+     * @return the token id
      */
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (Exception ex) {
-            return false;
-        }
+    public static String tokenId(Claims claims, String token) {
+        String jti = claims.getId();
+        return jti != null ? jti : token.substring(token.lastIndexOf('.') + 1);
     }
 }
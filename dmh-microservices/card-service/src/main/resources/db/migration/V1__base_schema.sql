@@ -0,0 +1,31 @@
+-- Esquema base. Las tablas pueden existir previamente (creadas por Hibernate con ddl-auto=update o por otro
+-- servicio que comparte la base), por eso se usa IF NOT EXISTS. Cada servicio crea las tablas que mapea para no
+-- depender del orden de arranque.
+
+CREATE TABLE IF NOT EXISTS users (
+    id           BIGINT         NOT NULL AUTO_INCREMENT,
+    first_name   VARCHAR(50)    NOT NULL,
+    last_name    VARCHAR(50)    NOT NULL,
+    dni          VARCHAR(20)    NOT NULL,
+    phone_number VARCHAR(20)    NOT NULL,
+    email        VARCHAR(100)   NOT NULL,
+    password     VARCHAR(255)   NOT NULL,
+    cvu          VARCHAR(22)    NOT NULL,
+    alias        VARCHAR(100)   NOT NULL,
+    balance      DECIMAL(38, 2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_dni UNIQUE (dni),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_cvu UNIQUE (cvu),
+    CONSTRAINT uk_users_alias UNIQUE (alias)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS cards (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id         BIGINT       NOT NULL,
+    card_number     VARCHAR(20)  NOT NULL,
+    holder_name     VARCHAR(100) NOT NULL,
+    expiration_date VARCHAR(7)   NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_cards_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
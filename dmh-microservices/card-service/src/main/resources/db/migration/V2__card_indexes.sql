@@ -0,0 +1,7 @@
+-- Índices para las consultas de tarjetas (propiedad de card-service).
+
+-- existsByCardNumber se ejecuta en cada alta de tarjeta.
+CREATE INDEX idx_cards_card_number ON cards (card_number);
+
+-- findByUser / findByIdAndUser: listado de tarjetas de una cuenta.
+CREATE INDEX idx_cards_user_id ON cards (user_id, id);
@@ -0,0 +1,23 @@
+package com.dmh.backend;
+
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base de los tests de integración que necesitan la base real: levanta un MySQL 8 descartable por clase de test y
+ * aplica las migraciones de Flyway al arrancar el contexto. Sin Docker disponible los tests se omiten.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = {
+        "eureka.client.enabled=false",
+        "jwt.secret=dGVzdC1zZWNyZXQtZm9yLWNhcmQtc2VydmljZS10ZXN0cy0wMDAwMDAw"
+})
+public abstract class MySqlIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+}
@@ -0,0 +1,203 @@
+package com.dmh.backend;
+
+import com.dmh.backend.model.User;
+import com.dmh.backend.security.CustomUserDetails;
+import com.dmh.backend.security.JwtTokenProvider;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga que compara hilos de plataforma y virtuales con el mismo pool de Hikari: el servicio real (Tomcat,
+ * filtro JWT, seguridad por método, JPA y MySQL) atiende {@code GET /accounts/{id}/cards} a concurrencia creciente, con
+ * el mismo total de peticiones por nivel, y se registran rendimiento, p50/p99/máximo y errores. Al terminar imprime la
+ * tabla comparativa.
+ * <p>
+ * No corre con el resto de los tests: {@code mvn test -Pload} sobre un runtime Java 21 (con 17 el modo virtual no
+ * existe y la clase se omite). Los resultados registrados están en {@code LOAD-TESTS.md}.
+ */
+@Tag("load")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadsLoadTest {
+
+    private static final int POOL_SIZE = 10;
+    private static final int[] CONCURRENCY = {50, 200, 800};
+    private static final int REQUESTS_PER_LEVEL = 4_000;
+    private static final int WARM_UP_REQUESTS = 2_000;
+    private static final long ACCOUNT = 1L;
+    private static final List<String> RESULTS = new ArrayList<>();
+
+    @AfterAll
+    static void printComparison() {
+        System.out.println();
+        System.out.printf("%-8s %11s %9s %8s %8s %8s %7s%n",
+                "threads", "concurrency", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        RESULTS.forEach(System.out::println);
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = "spring.threads.virtual.enabled=false")
+    class PlatformThreads extends LoadRun {
+
+        PlatformThreads() {
+            super("platform");
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = "spring.threads.virtual.enabled=true")
+    class VirtualThreads extends LoadRun {
+
+        VirtualThreads() {
+            super("virtual");
+        }
+    }
+
+    abstract static class LoadRun extends MySqlIntegrationTest {
+
+        private final String mode;
+
+        @LocalServerPort
+        private int port;
+
+        @Value("${spring.datasource.hikari.maximum-pool-size}")
+        private int poolSize;
+
+        @Autowired
+        private JdbcTemplate jdbc;
+
+        @Autowired
+        private JwtTokenProvider tokenProvider;
+
+        LoadRun(String mode) {
+            this.mode = mode;
+        }
+
+        @Test
+        void listCardsUnderLoad() throws Exception {
+            // la comparación sólo vale con el mismo pool en ambos modos
+            assertThat(poolSize).isEqualTo(POOL_SIZE);
+            seed();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/accounts/" + ACCOUNT
+                            + "/cards"))
+                    .header("Authorization", "Bearer " + token())
+                    .build();
+
+            run(client, request, 50, WARM_UP_REQUESTS / 50);
+            // los errores (por ejemplo el connection-timeout de Hikari al saturarse el pool) son parte del resultado:
+            // se registran en la tabla en lugar de cortar la corrida
+            for (int concurrency : CONCURRENCY) {
+                Level level = run(client, request, concurrency, REQUESTS_PER_LEVEL / concurrency);
+                synchronized (RESULTS) {
+                    RESULTS.add(String.format("%-8s %11d %9.0f %8.1f %8.1f %8.1f %7d", mode, concurrency,
+                            level.throughput(), level.percentile(50), level.percentile(99), level.percentile(100),
+                            level.errors));
+                }
+            }
+        }
+
+        private void seed() {
+            jdbc.update("INSERT IGNORE INTO users (id, first_name, last_name, dni, phone_number, email, password, cvu, "
+                    + "alias, balance) VALUES (?, 'Load', 'Test', 'dni-load', '1100000000', 'load@example.com', 'x', "
+                    + "'0000000000000000000001', 'load.alias.test', 0)", ACCOUNT);
+            for (int i = 0; i < 5; i++) {
+                jdbc.update("INSERT IGNORE INTO cards (user_id, card_number, holder_name, expiration_date) "
+                        + "VALUES (?, ?, 'Load Test', '12/2030')", ACCOUNT, String.format("4%015d", i));
+            }
+        }
+
+        // con el claim del id el filtro arma el principal sin consultar la base: cada petición es una sola lectura
+        private String token() {
+            User user = new User();
+            user.setId(ACCOUNT);
+            user.setEmail("load@example.com");
+            CustomUserDetails principal = new CustomUserDetails(user);
+            return tokenProvider.generateToken(
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        }
+
+        private static Level run(HttpClient client, HttpRequest request, int concurrency, int requestsPerClient)
+                throws InterruptedException {
+            long[] latencies = new long[concurrency * requestsPerClient];
+            AtomicInteger next = new AtomicInteger();
+            AtomicInteger errors = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+            for (int c = 0; c < concurrency; c++) {
+                clients.execute(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < requestsPerClient; i++) {
+                            long began = System.nanoTime();
+                            try {
+                                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                    errors.incrementAndGet();
+                                }
+                            } catch (Exception ex) {
+                                errors.incrementAndGet();
+                            }
+                            latencies[next.getAndIncrement()] = System.nanoTime() - began;
+                        }
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            long began = System.nanoTime();
+            start.countDown();
+            clients.shutdown();
+            assertThat(clients.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+            return new Level(latencies, System.nanoTime() - began, errors.get());
+        }
+    }
+
+    private static final class Level {
+
+        private final long[] latencies;
+        private final long elapsedNanos;
+        private final int errors;
+
+        private Level(long[] latencies, long elapsedNanos, int errors) {
+            this.latencies = latencies.clone();
+            Arrays.sort(this.latencies);
+            this.elapsedNanos = elapsedNanos;
+            this.errors = errors;
+        }
+
+        private double throughput() {
+            return latencies.length / (elapsedNanos / 1e9);
+        }
+
+        private double percentile(int percentile) {
+            int index = (int) Math.ceil(percentile / 100.0 * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.dmh.backend;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.test.context.assertj.AssertableWebApplicationContext;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.boot.web.servlet.context.AnnotationConfigServletWebServerApplicationContext;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.support.ResourcePropertySource;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica el modo de hilos virtuales que se activa con {@code VIRTUAL_THREADS_ENABLED}: con la configuración del
+ * servicio, las peticiones de Tomcat, {@code @Async} y {@code @Scheduled} corren en hilos virtuales sólo cuando la
+ * variable está activa y el runtime es Java 21 o superior.
+ */
+class VirtualThreadsTest {
+
+    private final WebApplicationContextRunner runner =
+            new WebApplicationContextRunner(AnnotationConfigServletWebServerApplicationContext::new)
+                    .withInitializer(context -> context.getEnvironment().getPropertySources()
+                            .addLast(applicationProperties()))
+                    .withPropertyValues("server.port=0")
+                    .withUserConfiguration(ProbeConfig.class)
+                    .withConfiguration(AutoConfigurations.of(ServletWebServerFactoryAutoConfiguration.class,
+                            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+                            TaskExecutionAutoConfiguration.class, TaskSchedulingAutoConfiguration.class));
+
+    @Test
+    void disabledByDefault() {
+        runner.run(context -> {
+            assertThat(context.getEnvironment().getProperty("spring.threads.virtual.enabled")).isEqualTo("false");
+            assertThreads(context, false);
+        });
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void enabledRunsRequestsAndTasksOnVirtualThreads() {
+        runner.withSystemProperties("VIRTUAL_THREADS_ENABLED=true").run(context -> {
+            assertThat(context.getEnvironment().getProperty("spring.threads.virtual.enabled")).isEqualTo("true");
+            assertThreads(context, true);
+        });
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void enabledIsIgnoredBeforeJava21() {
+        // la imagen usa Java 21 pero el build apunta a 17: en un runtime 17 el flag no debe romper el arranque
+        runner.withSystemProperties("VIRTUAL_THREADS_ENABLED=true").run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThreads(context, false);
+        });
+    }
+
+    private static void assertThreads(AssertableWebApplicationContext context, boolean virtual) throws Exception {
+        // petición HTTP real contra el Tomcat embebido
+        int port = context.getSourceApplicationContext(ServletWebServerApplicationContext.class)
+                .getWebServer().getPort();
+        HttpResponse<Void> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/probe")).build(),
+                HttpResponse.BodyHandlers.discarding());
+        assertThat(response.statusCode()).isEqualTo(204);
+        assertThat(isVirtual(context.getBean(ProbeServlet.class).thread.get())).as("request").isEqualTo(virtual);
+
+        // @Async
+        AsyncTaskExecutor executor = context.getBean("applicationTaskExecutor", AsyncTaskExecutor.class);
+        assertThat(isVirtual(executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS)))
+                .as("@Async").isEqualTo(virtual);
+
+        // @Scheduled
+        CompletableFuture<Thread> scheduled = new CompletableFuture<>();
+        context.getBean(TaskScheduler.class).schedule(() -> scheduled.complete(Thread.currentThread()), Instant.now());
+        assertThat(isVirtual(scheduled.get(5, TimeUnit.SECONDS))).as("@Scheduled").isEqualTo(virtual);
+    }
+
+    private static ResourcePropertySource applicationProperties() {
+        try {
+            return new ResourcePropertySource("classpath:application.properties");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Thread.isVirtual() existe desde Java 21 y el código compila contra 17
+    private static boolean isVirtual(Thread thread) throws ReflectiveOperationException {
+        try {
+            return (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableScheduling
+    static class ProbeConfig {
+
+        @Bean
+        ProbeServlet probeServlet() {
+            return new ProbeServlet();
+        }
+
+        @Bean
+        ServletRegistrationBean<ProbeServlet> probeServletRegistration(ProbeServlet probeServlet) {
+            return new ServletRegistrationBean<>(probeServlet, "/probe");
+        }
+    }
+
+    /**
+     * Registra el hilo que atendió la última petición.
+     */
+    static class ProbeServlet extends HttpServlet {
+
+        private final AtomicReference<Thread> thread = new AtomicReference<>();
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+            thread.set(Thread.currentThread());
+            response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+        }
+    }
+}
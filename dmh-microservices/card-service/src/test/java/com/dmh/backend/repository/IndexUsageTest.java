@@ -0,0 +1,73 @@
+package com.dmh.backend.repository;
+
+import com.dmh.backend.MySqlIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica con EXPLAIN que las consultas de tarjetas usan los índices de las migraciones. Las consultas reproducen
+ * las que generan los repositorios.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class IndexUsageTest extends MySqlIntegrationTest {
+
+    private static final int USERS = 50;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= USERS; id++) {
+            jdbc.update("INSERT INTO users (id, first_name, last_name, dni, phone_number, email, password, cvu, alias, "
+                            + "balance) VALUES (?, 'User', 'Test', ?, '1100000000', ?, 'x', ?, ?, 0)",
+                    id, "dni-" + id, "user" + id + "@example.com", String.format("%022d", id), "alias.user." + id);
+        }
+        List<Object[]> cards = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            cards.add(new Object[]{i % USERS + 1, String.format("4%015d", i)});
+        }
+        jdbc.batchUpdate("INSERT INTO cards (user_id, card_number, holder_name, expiration_date) "
+                + "VALUES (?, ?, 'User Test', '12/2030')", cards);
+    }
+
+    @Test
+    void cardNumberLookupUsesItsIndex() {
+        // existsByCardNumber, en cada alta de tarjeta
+        assertThat(explain("SELECT id FROM cards WHERE card_number = '4000000000000123' LIMIT 1"))
+                .containsEntry("key", "idx_cards_card_number");
+    }
+
+    @Test
+    void userCardsAreReadInOrder() {
+        // findResponsesByUserId
+        Map<String, Object> plan = explain("SELECT id, card_number, holder_name, expiration_date FROM cards "
+                + "WHERE user_id = 7 ORDER BY id");
+        assertThat(plan).containsEntry("key", "idx_cards_user_id");
+        assertThat(String.valueOf(plan.get("Extra"))).doesNotContain("filesort");
+    }
+
+    @Test
+    void cardOfUserIsASingleRowLookup() {
+        // findByIdAndUserId y deleteByIdAndUserId
+        Map<String, Object> card = jdbc.queryForMap("SELECT id, user_id FROM cards ORDER BY id LIMIT 1 OFFSET 100");
+        assertThat(explain("SELECT * FROM cards WHERE id = " + card.get("id") + " AND user_id = " + card.get("user_id")))
+                .containsEntry("type", "const")
+                .containsEntry("key", "PRIMARY");
+    }
+
+    private Map<String, Object> explain(String sql) {
+        return jdbc.queryForList("EXPLAIN " + sql).get(0);
+    }
+}
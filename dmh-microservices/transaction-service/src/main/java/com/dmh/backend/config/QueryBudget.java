@@ -0,0 +1,28 @@
+package com.dmh.backend.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the maximum number of SQL statements a controller endpoint may issue while handling one request. Counted
+ * by {@link QueryBudgetInspector} and checked by {@link QueryBudgetInterceptor}; a request over budget is logged, or
+ * fails outright with {@code dmh.query-budget.fail-on-exceed=true}, which is how an N+1 introduced by a lazy
+ * association surfaces before it reaches production.
+ * <p>
+ * Only statements prepared through Hibernate on the request thread count: JDBC batches count once per batch and the
+ * principal lookup done by the security filter happens before the handler, so it is not included.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    /**
+     * Maximum number of statements, including the ones only issued on error paths (e.g. the existence check behind
+     * a 404).
+     */
+    int value();
+}
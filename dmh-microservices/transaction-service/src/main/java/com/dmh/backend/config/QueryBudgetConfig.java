@@ -0,0 +1,34 @@
+package com.dmh.backend.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Wires the {@link QueryBudget} checks: registers {@link QueryBudgetInspector} with Hibernate and
+ * {@link QueryBudgetInterceptor} with Spring MVC. Enabled by default ({@code dmh.query-budget.enabled}); by default an
+ * endpoint over budget is only logged, while test and CI runs set {@code dmh.query-budget.fail-on-exceed=true} so the
+ * offending request fails.
+ */
+@Configuration
+@ConditionalOnProperty(name = "dmh.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryBudgetConfig implements WebMvcConfigurer {
+
+    @Value("${dmh.query-budget.fail-on-exceed:false}")
+    private boolean failOnExceed;
+
+    @Bean
+    public HibernatePropertiesCustomizer queryBudgetInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryBudgetInspector());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryBudgetInterceptor(failOnExceed));
+    }
+}
@@ -0,0 +1,83 @@
+package com.dmh.backend.config;
+
+import com.dmh.backend.exception.QueryBudgetExceededException;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate {@link StatementInspector} that counts the statements prepared on the current thread while a
+ * {@link QueryBudget} scope is open. Unlike the session factory statistics, which are global, the count is per
+ * request, so concurrent requests do not affect each other's numbers.
+ */
+public class QueryBudgetInspector implements StatementInspector {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Starts counting statements for the current thread.
+     *
+     * @param endpoint     name of the handler, used in messages
+     * @param budget       maximum number of statements
+     * @param failOnExceed whether the statement that exceeds the budget should fail
+     */
+    static void open(String endpoint, int budget, boolean failOnExceed) {
+        CURRENT.set(new Scope(endpoint, budget, failOnExceed));
+    }
+
+    /**
+     * Stops counting for the current thread.
+     *
+     * @return the closed scope, or {@code null} if none was open
+     */
+    static Scope close() {
+        Scope scope = CURRENT.get();
+        CURRENT.remove();
+        return scope;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.record(sql);
+        }
+        return sql;
+    }
+
+    static final class Scope {
+
+        private final String endpoint;
+        private final int budget;
+        private final boolean failOnExceed;
+        private int count;
+
+        private Scope(String endpoint, int budget, boolean failOnExceed) {
+            this.endpoint = endpoint;
+            this.budget = budget;
+            this.failOnExceed = failOnExceed;
+        }
+
+        private void record(String sql) {
+            count++;
+            if (failOnExceed && count > budget) {
+                throw new QueryBudgetExceededException(endpoint + " exceeded its query budget of " + budget
+                        + " statements; statement #" + count + ": " + sql);
+            }
+        }
+
+        String getEndpoint() {
+            return endpoint;
+        }
+
+        int getBudget() {
+            return budget;
+        }
+
+        int getCount() {
+            return count;
+        }
+
+        boolean isExceeded() {
+            return count > budget;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.dmh.backend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Opens a statement-counting scope around every handler annotated with {@link QueryBudget} and reports the result
+ * once the request completes. For asynchronous handlers (e.g. streamed exports) only the statements issued on the
+ * request thread are counted: the scope is closed when concurrent handling starts.
+ */
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetInterceptor.class);
+
+    private final boolean failOnExceed;
+
+    public QueryBudgetInterceptor(boolean failOnExceed) {
+        this.failOnExceed = failOnExceed;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod method = (HandlerMethod) handler;
+            QueryBudget budget = method.getMethodAnnotation(QueryBudget.class);
+            if (budget != null) {
+                QueryBudgetInspector.open(method.getShortLogMessage(), budget.value(), failOnExceed);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        report(QueryBudgetInspector.close());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        report(QueryBudgetInspector.close());
+    }
+
+    private static void report(QueryBudgetInspector.Scope scope) {
+        if (scope == null) {
+            return;
+        }
+        if (scope.isExceeded()) {
+            log.warn("{} issued {} statements, over its budget of {}", scope.getEndpoint(), scope.getCount(), scope.getBudget());
+        } else {
+            log.debug("{} issued {} of {} budgeted statements", scope.getEndpoint(), scope.getCount(), scope.getBudget());
+        }
+    }
+}
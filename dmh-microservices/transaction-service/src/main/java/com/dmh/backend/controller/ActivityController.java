@@ -1,5 +1,9 @@
 package com.dmh.backend.controller;
 
+import com.dmh.backend.config.QueryBudget;
+import com.dmh.backend.dto.ActivityExportFormat;
+import com.dmh.backend.dto.ActivityPageResponse;
+import com.dmh.backend.dto.ActivitySummaryResponse;
 import com.dmh.backend.dto.TransactionResponse;
 import com.dmh.backend.dto.TransferenceRequest;
 import com.dmh.backend.service.TransactionService;
@@ -11,10 +15,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -31,24 +37,70 @@ public class ActivityController {
 
     private final TransactionService transactionService;
 
-    @Operation(summary = "Listar actividad", description = "Obtiene el historial de movimientos de la cuenta en orden descendente. Permite filtros opcionales por monto, fechas o tipo.")
+    @Operation(summary = "Listar actividad", description = "Obtiene el historial de movimientos de la cuenta en orden descendente, paginado por cursor. Permite filtros opcionales por monto, fechas o tipo. Para obtener la página siguiente se envía el nextCursor de la respuesta anterior.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de actividades",
-                    content = @Content(schema = @Schema(implementation = TransactionResponse.class))),
+            @ApiResponse(responseCode = "200", description = "Página de actividades",
+                    content = @Content(schema = @Schema(implementation = ActivityPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor o tamaño de página inválido"),
             @ApiResponse(responseCode = "404", description = "Cuenta no encontrada")
     })
     @GetMapping("/activity")
     @PreAuthorize("hasRole('USER') and #accountId == principal.id")
-    public ResponseEntity<List<TransactionResponse>> getActivity(
+    @QueryBudget(2)
+    public ResponseEntity<ActivityPageResponse> getActivity(
             @PathVariable Long accountId,
             @RequestParam(value = "minAmount", required = false) BigDecimal minAmount,
             @RequestParam(value = "maxAmount", required = false) BigDecimal maxAmount,
             @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestParam(value = "type", required = false) String type
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        ActivityPageResponse page = transactionService.getActivity(accountId, minAmount, maxAmount, startDate, endDate, type, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(summary = "Resumen de actividad", description = "Devuelve el total de ingresos, el total de egresos y la cantidad de movimientos de la cuenta por día, semana (desde el lunes) o mes. Permite filtrar por tipo y rango de fechas; sin fechas se usan los últimos 30 días, 12 semanas o 12 meses.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Totales por período"),
+            @ApiResponse(responseCode = "400", description = "Agrupación o rango de fechas inválido"),
+            @ApiResponse(responseCode = "404", description = "Cuenta no encontrada")
+    })
+    @GetMapping("/activity/summary")
+    @PreAuthorize("hasRole('USER') and #accountId == principal.id")
+    @QueryBudget(2)
+    public ResponseEntity<List<ActivitySummaryResponse>> getActivitySummary(
+            @PathVariable Long accountId,
+            @RequestParam(value = "groupBy", defaultValue = "month") String groupBy,
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+    ) {
+        List<ActivitySummaryResponse> summary = transactionService.getActivitySummary(accountId, groupBy, type, startDate, endDate);
+        return ResponseEntity.ok(summary);
+    }
+
+    @Operation(summary = "Exportar actividad", description = "Descarga el historial completo de la cuenta, del movimiento más reciente al más antiguo, en formato CSV o NDJSON. Las filas se envían a medida que se leen de la base de datos.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Historial exportado"),
+            @ApiResponse(responseCode = "400", description = "Formato no soportado"),
+            @ApiResponse(responseCode = "404", description = "Cuenta no encontrada")
+    })
+    @GetMapping("/activity/export")
+    @PreAuthorize("hasRole('USER') and #accountId == principal.id")
+    @QueryBudget(1)
+    public ResponseEntity<StreamingResponseBody> exportActivity(
+            @PathVariable Long accountId,
+            @RequestParam(value = "format", defaultValue = "csv") String format
     ) {
-        List<TransactionResponse> responses = transactionService.getActivity(accountId, minAmount, maxAmount, startDate, endDate, type);
-        return ResponseEntity.ok(responses);
+        ActivityExportFormat exportFormat = ActivityExportFormat.from(format);
+        StreamingResponseBody body = transactionService.exportActivity(accountId, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"activity-" + accountId + "." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
 
     @Operation(summary = "Detalle de movimiento", description = "Obtiene el detalle de una transacción específica de la cuenta")
@@ -59,6 +111,7 @@ public class ActivityController {
     })
     @GetMapping("/activity/{transactionId}")
     @PreAuthorize("hasRole('USER') and #accountId == principal.id")
+    @QueryBudget(1)
     public ResponseEntity<TransactionResponse> getTransaction(@PathVariable Long accountId, @PathVariable Long transactionId) {
         TransactionResponse response = transactionService.getTransaction(accountId, transactionId);
         return ResponseEntity.ok(response);
@@ -74,6 +127,7 @@ public class ActivityController {
     })
     @PostMapping("/transferences")
     @PreAuthorize("hasRole('USER') and #accountId == principal.id")
+    @QueryBudget(4)
     public ResponseEntity<TransactionResponse> createIncome(
             @PathVariable Long accountId,
             @RequestBody @jakarta.validation.Valid TransferenceRequest request
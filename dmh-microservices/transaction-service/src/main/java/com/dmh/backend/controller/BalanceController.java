@@ -0,0 +1,65 @@
+package com.dmh.backend.controller;
+
+import com.dmh.backend.config.QueryBudget;
+import com.dmh.backend.dto.BalanceAtDateResponse;
+import com.dmh.backend.dto.PeriodSummaryResponse;
+import com.dmh.backend.service.BalanceSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * Controlador que expone saldos históricos y resúmenes por período, calculados a partir de los resúmenes diarios.
+ */
+@RestController
+@RequestMapping("/accounts/{accountId}/balance")
+@Tag(name = "Saldos", description = "Saldos históricos y resúmenes por período")
+@RequiredArgsConstructor
+public class BalanceController {
+
+    private final BalanceSnapshotService balanceSnapshotService;
+
+    @Operation(summary = "Saldo a una fecha", description = "Devuelve el saldo de la cuenta al cierre del día indicado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Saldo calculado",
+                    content = @Content(schema = @Schema(implementation = BalanceAtDateResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Cuenta no encontrada")
+    })
+    @GetMapping
+    @PreAuthorize("hasRole('USER') and #accountId == principal.id")
+    @QueryBudget(2)
+    public ResponseEntity<BalanceAtDateResponse> getBalanceAt(
+            @PathVariable Long accountId,
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return ResponseEntity.ok(balanceSnapshotService.getBalanceAt(accountId, date));
+    }
+
+    @Operation(summary = "Resumen de un período", description = "Devuelve el saldo inicial y final, el total de ingresos, el total de egresos y la cantidad de movimientos de la cuenta entre dos fechas (inclusive)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resumen calculado",
+                    content = @Content(schema = @Schema(implementation = PeriodSummaryResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Rango de fechas inválido"),
+            @ApiResponse(responseCode = "404", description = "Cuenta no encontrada")
+    })
+    @GetMapping("/period")
+    @PreAuthorize("hasRole('USER') and #accountId == principal.id")
+    @QueryBudget(3)
+    public ResponseEntity<PeriodSummaryResponse> getPeriodSummary(
+            @PathVariable Long accountId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(balanceSnapshotService.getPeriodSummary(accountId, from, to));
+    }
+}
@@ -1,5 +1,6 @@
 package com.dmh.backend.controller;
 
+import com.dmh.backend.config.QueryBudget;
 import com.dmh.backend.dto.AccountResponse;
 import com.dmh.backend.dto.TransactionResponse;
 import com.dmh.backend.service.TransactionService;
@@ -34,6 +35,7 @@ public class DashboardController {
     })
     @GetMapping("/{accountId}")
     @PreAuthorize("hasRole('USER') and #accountId == principal.id")
+    @QueryBudget(1)
     public ResponseEntity<AccountResponse> getAccount(@PathVariable Long accountId) {
         AccountResponse response = userService.getAccount(accountId);
         return ResponseEntity.ok(response);
@@ -46,6 +48,7 @@ public class DashboardController {
     })
     @GetMapping("/{accountId}/transactions")
     @PreAuthorize("hasRole('USER') and #accountId == principal.id")
+    @QueryBudget(2)
     public ResponseEntity<List<TransactionResponse>> getLastTransactions(@PathVariable Long accountId) {
         List<TransactionResponse> list = transactionService.getLastTransactions(accountId);
         return ResponseEntity.ok(list);
@@ -59,6 +62,7 @@ public class DashboardController {
     })
     @PatchMapping("/{accountId}")
     @PreAuthorize("hasRole('USER') and #accountId == principal.id")
+    @QueryBudget(3)
     public ResponseEntity<AccountResponse> updateAccount(@PathVariable Long accountId,
                                                         @RequestBody com.dmh.backend.dto.AccountUpdateRequest request) {
         AccountResponse response = userService.updateAccount(accountId, request);
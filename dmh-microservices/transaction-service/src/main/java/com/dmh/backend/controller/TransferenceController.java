@@ -1,5 +1,6 @@
 package com.dmh.backend.controller;
 
+import com.dmh.backend.config.QueryBudget;
 import com.dmh.backend.dto.RecipientResponse;
 import com.dmh.backend.dto.TransferRequest;
 import com.dmh.backend.dto.TransferResponse;
@@ -38,6 +39,7 @@ public class TransferenceController {
     })
     @GetMapping
     @PreAuthorize("hasRole('USER') and #accountId == principal.id")
+    @QueryBudget(2)
     public ResponseEntity<List<RecipientResponse>> getLastRecipients(@PathVariable Long accountId) {
         List<RecipientResponse> list = transferenceService.getLastRecipients(accountId);
         return ResponseEntity.ok(list);
@@ -54,6 +56,7 @@ public class TransferenceController {
     })
     @PostMapping
     @PreAuthorize("hasRole('USER') and #accountId == principal.id")
+    @QueryBudget(9)
     public ResponseEntity<TransferResponse> makeTransfer(
             @PathVariable Long accountId,
             @Valid @RequestBody TransferRequest request
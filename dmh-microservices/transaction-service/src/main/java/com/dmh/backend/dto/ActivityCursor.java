@@ -0,0 +1,48 @@
+package com.dmh.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de la última transacción entregada en una página de actividad. Se serializa como un token opaco
+ * (Base64 URL-safe de {@code fecha|id}) para que el cliente sólo tenga que reenviarlo.
+ */
+@Getter
+@AllArgsConstructor
+public class ActivityCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime date;
+    private final Long id;
+
+    public String encode() {
+        String raw = date.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente.
+     *
+     * @param token cursor opaco
+     * @return la posición decodificada
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static ActivityCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARATOR);
+            if (sep < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ActivityCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.dmh.backend.dto;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Formatos disponibles para exportar la actividad completa de una cuenta.
+ */
+public enum ActivityExportFormat {
+
+    /**
+     * CSV (RFC 4180) con una fila de encabezado.
+     */
+    CSV(new MediaType("text", "csv", java.nio.charset.StandardCharsets.UTF_8), "csv"),
+
+    /**
+     * Un objeto JSON por línea.
+     */
+    NDJSON(new MediaType("application", "x-ndjson", java.nio.charset.StandardCharsets.UTF_8), "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ActivityExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Obtiene el formato a partir del parámetro de la petición, sin distinguir mayúsculas.
+     *
+     * @param value nombre del formato ({@code csv} o {@code ndjson})
+     * @return formato correspondiente
+     * @throws IllegalArgumentException si el formato no es soportado
+     */
+    public static ActivityExportFormat from(String value) {
+        for (ActivityExportFormat format : values()) {
+            if (format.extension.equals(value.toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + value);
+    }
+}
@@ -0,0 +1,18 @@
+package com.dmh.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de actividad paginada por cursor. {@code nextCursor} es null cuando no hay más resultados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityPageResponse {
+    private List<TransactionResponse> items;
+    private String nextCursor;
+}
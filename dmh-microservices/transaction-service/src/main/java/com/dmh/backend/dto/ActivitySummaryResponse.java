@@ -0,0 +1,24 @@
+package com.dmh.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO con los totales de los movimientos de una cuenta en un período (día, semana o mes).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivitySummaryResponse {
+    /**
+     * Primer día del período: el día, el lunes de la semana o el primer día del mes.
+     */
+    private LocalDate period;
+    private BigDecimal totalIn;
+    private BigDecimal totalOut;
+    private long transactionCount;
+}
@@ -0,0 +1,20 @@
+package com.dmh.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO con el saldo de una cuenta al cierre de un día.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceAtDateResponse {
+    private Long accountId;
+    private LocalDate date;
+    private BigDecimal balance;
+}
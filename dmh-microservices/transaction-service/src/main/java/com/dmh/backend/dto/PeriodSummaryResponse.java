@@ -0,0 +1,26 @@
+package com.dmh.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO con el resumen de los movimientos de una cuenta en un período: saldo al inicio y al cierre, total de ingresos,
+ * total de egresos (en valor absoluto) y cantidad de movimientos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeriodSummaryResponse {
+    private Long accountId;
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal openingBalance;
+    private BigDecimal totalIn;
+    private BigDecimal totalOut;
+    private BigDecimal closingBalance;
+    private long transactionCount;
+}
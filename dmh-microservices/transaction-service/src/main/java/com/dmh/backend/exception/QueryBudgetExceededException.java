@@ -0,0 +1,11 @@
+package com.dmh.backend.exception;
+
+/**
+ * Se lanza cuando un endpoint anotado con {@link com.dmh.backend.config.QueryBudget} ejecuta más sentencias
+ * SQL que las declaradas y {@code dmh.query-budget.fail-on-exceed} está activo.
+ */
+public class QueryBudgetExceededException extends IllegalStateException {
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,73 @@
+package com.dmh.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Resumen de los movimientos de una cuenta en un día. Se crea con el primer movimiento del día y se actualiza con cada
+ * uno de los siguientes, en la misma transacción que el movimiento.
+ * <p>
+ * El saldo de apertura se toma del saldo real de la cuenta al registrar el primer movimiento, por lo que los saldos
+ * históricos no dependen de que los totales sean exactos; los totales los verifica contra las transacciones
+ * {@link com.dmh.backend.service.BalanceSnapshotService#reconcile()}.
+ */
+@Entity
+@Table(name = "daily_balance_snapshots")
+@IdClass(DailyBalanceSnapshot.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyBalanceSnapshot {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "snapshot_date")
+    private LocalDate date;
+
+    /**
+     * Saldo de la cuenta al inicio del día.
+     */
+    @Column(name = "opening_balance", nullable = false)
+    private BigDecimal openingBalance;
+
+    /**
+     * Suma de los movimientos positivos del día.
+     */
+    @Column(name = "total_in", nullable = false)
+    private BigDecimal totalIn;
+
+    /**
+     * Suma, en valor absoluto, de los movimientos negativos del día.
+     */
+    @Column(name = "total_out", nullable = false)
+    private BigDecimal totalOut;
+
+    /**
+     * Cantidad de movimientos del día.
+     */
+    @Column(name = "tx_count", nullable = false)
+    private int transactionCount;
+
+    /**
+     * Clave compuesta (cuenta, día).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate date;
+    }
+}
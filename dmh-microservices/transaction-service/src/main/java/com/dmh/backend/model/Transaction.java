@@ -12,9 +12,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
- * Representa un movimiento de dinero (transacción) asociado a un usuario (cuenta).
+ * Representa un movimiento de dinero (transacción) asociado a un usuario (cuenta). El usuario se carga de forma
+ * diferida; las lecturas que lo necesitan usan el grafo {@code Transaction.user}, que lo trae en la misma consulta.
  */
 @Entity
+@NamedEntityGraph(name = "Transaction.user", attributeNodes = @NamedAttributeNode("user"))
 @Table(name = "transactions")
 @Getter
 @Setter
@@ -22,8 +24,13 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Transaction {
 
+    /**
+     * Identificador asignado por Hibernate desde la tabla-secuencia {@code transactions_seq} en bloques de 50, para que
+     * los inserts puedan agruparse en batches JDBC (con IDENTITY cada insert debe ejecutarse de inmediato).
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
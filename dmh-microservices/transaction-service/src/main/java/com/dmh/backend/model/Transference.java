@@ -10,9 +10,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
- * Representa una transferencia de dinero de un usuario a otro.
+ * Representa una transferencia de dinero de un usuario a otro. Ambos usuarios se cargan de forma diferida; las lecturas
+ * que los necesitan usan el grafo {@code Transference.parties}, que los trae en la misma consulta.
  */
 @Entity
+@NamedEntityGraph(name = "Transference.parties",
+        attributeNodes = {@NamedAttributeNode("fromUser"), @NamedAttributeNode("toUser")})
 @Table(name = "transferences")
 @Getter
 @Setter
@@ -20,8 +23,13 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Transference {
 
+    /**
+     * Identificador asignado por Hibernate desde la tabla-secuencia {@code transferences_seq} en bloques de 50, para que
+     * los inserts puedan agruparse en batches JDBC (con IDENTITY cada insert debe ejecutarse de inmediato).
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transferences_seq")
+    @SequenceGenerator(name = "transferences_seq", sequenceName = "transferences_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
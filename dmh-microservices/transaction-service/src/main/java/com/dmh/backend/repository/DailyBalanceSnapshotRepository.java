@@ -0,0 +1,159 @@
+package com.dmh.backend.repository;
+
+import com.dmh.backend.model.DailyBalanceSnapshot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio de los resúmenes diarios de saldo ({@link DailyBalanceSnapshot}).
+ */
+@Repository
+public interface DailyBalanceSnapshotRepository extends JpaRepository<DailyBalanceSnapshot, DailyBalanceSnapshot.Key> {
+
+    /**
+     * Suma un movimiento al resumen del día de la cuenta, creándolo si es el primero. Debe ejecutarse después de
+     * actualizar el saldo y en la misma transacción: la fila del usuario ya está bloqueada por ese UPDATE, por lo que
+     * {@code balance - amount} es exactamente el saldo previo al movimiento y sólo se usa como apertura del día si la
+     * fila no existía.
+     *
+     * @param userId identificador de la cuenta
+     * @param date   día del movimiento
+     * @param amount monto del movimiento, positivo para ingresos y negativo para egresos
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_balance_snapshots "
+            + "(user_id, snapshot_date, opening_balance, total_in, total_out, tx_count) "
+            + "SELECT * FROM (SELECT u.id AS user_id, :date AS snapshot_date, u.balance - :amount AS opening_balance, "
+            + "GREATEST(:amount, 0) AS total_in, GREATEST(-:amount, 0) AS total_out, 1 AS tx_count "
+            + "FROM users u WHERE u.id = :userId) AS new "
+            + "ON DUPLICATE KEY UPDATE total_in = daily_balance_snapshots.total_in + new.total_in, "
+            + "total_out = daily_balance_snapshots.total_out + new.total_out, "
+            + "tx_count = daily_balance_snapshots.tx_count + new.tx_count",
+            nativeQuery = true)
+    void recordMovement(@Param("userId") Long userId, @Param("date") LocalDate date, @Param("amount") BigDecimal amount);
+
+    /**
+     * Devuelve los saldos de apertura de los días con movimientos posteriores a {@code date}, en orden ascendente. El
+     * primero es el saldo de la cuenta al cierre de {@code date}.
+     *
+     * @param userId   identificador de la cuenta
+     * @param date     día de referencia
+     * @param pageable cantidad de resultados (normalmente uno)
+     * @return saldos de apertura posteriores a la fecha
+     */
+    @Query("select s.openingBalance from DailyBalanceSnapshot s where s.userId = :userId and s.date > :date "
+            + "order by s.date asc")
+    List<BigDecimal> findOpeningBalancesAfter(@Param("userId") Long userId, @Param("date") LocalDate date, Pageable pageable);
+
+    /**
+     * Suma los resúmenes diarios de la cuenta entre dos fechas (inclusive).
+     *
+     * @param userId identificador de la cuenta
+     * @param from   fecha inicial
+     * @param to     fecha final
+     * @return totales del período, en cero si no hubo movimientos
+     */
+    @Query("select coalesce(sum(s.totalIn), 0) as totalIn, coalesce(sum(s.totalOut), 0) as totalOut, "
+            + "coalesce(sum(s.transactionCount), 0) as transactionCount from DailyBalanceSnapshot s "
+            + "where s.userId = :userId and s.date between :from and :to")
+    PeriodTotals sumPeriod(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Cuenta las cuentas cuyo resumen del día no coincide con los movimientos registrados en {@code [start, end)}:
+     * cuentas con movimientos y sin resumen o con totales distintos, y resúmenes del día de cuentas sin movimientos.
+     * MySQL no tiene FULL OUTER JOIN, por eso se suman los dos lados.
+     *
+     * @param date  día a verificar
+     * @param start inicio del día
+     * @param end   inicio del día siguiente
+     * @return cantidad de cuentas con diferencias
+     */
+    @Query(value = "SELECT (SELECT COUNT(*) FROM (" + LEDGER_DAY + ") l "
+            + "LEFT JOIN daily_balance_snapshots s ON s.user_id = l.user_id AND s.snapshot_date = :date "
+            + "WHERE s.user_id IS NULL OR s.total_in <> l.total_in OR s.total_out <> l.total_out "
+            + "OR s.tx_count <> l.tx_count) + (SELECT COUNT(*) FROM daily_balance_snapshots s "
+            + "LEFT JOIN (" + LEDGER_DAY + ") l ON l.user_id = s.user_id "
+            + "WHERE s.snapshot_date = :date AND l.user_id IS NULL)",
+            nativeQuery = true)
+    long countMismatches(@Param("date") LocalDate date, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Reescribe los totales del día de cada cuenta a partir de los movimientos registrados en {@code [start, end)}. Si
+     * faltaba el resumen, su apertura es el cierre del resumen anterior (o cero). Los saldos de apertura existentes no
+     * se modifican: provienen del saldo real de la cuenta.
+     *
+     * @param date  día a reparar
+     * @param start inicio del día
+     * @param end   inicio del día siguiente
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_balance_snapshots "
+            + "(user_id, snapshot_date, opening_balance, total_in, total_out, tx_count) "
+            + "SELECT * FROM (SELECT l.user_id, :date AS snapshot_date, "
+            + "COALESCE((SELECT p.opening_balance + p.total_in - p.total_out "
+            + "FROM daily_balance_snapshots p WHERE p.user_id = l.user_id AND p.snapshot_date < :date "
+            + "ORDER BY p.snapshot_date DESC LIMIT 1), 0) AS opening_balance, l.total_in, l.total_out, l.tx_count "
+            + "FROM (" + LEDGER_DAY + ") l) AS new "
+            + "ON DUPLICATE KEY UPDATE total_in = new.total_in, total_out = new.total_out, tx_count = new.tx_count",
+            nativeQuery = true)
+    void repairDay(@Param("date") LocalDate date, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Elimina los resúmenes del día de las cuentas que no tienen movimientos en {@code [start, end)}. Sólo existen
+     * resúmenes de días con movimientos, y quitar uno no cambia ningún saldo histórico: su apertura es también la del
+     * siguiente resumen de la cuenta.
+     *
+     * @param date  día a reparar
+     * @param start inicio del día
+     * @param end   inicio del día siguiente
+     */
+    @Modifying
+    @Query(value = "DELETE s FROM daily_balance_snapshots s LEFT JOIN (" + LEDGER_DAY + ") l ON l.user_id = s.user_id "
+            + "WHERE s.snapshot_date = :date AND l.user_id IS NULL",
+            nativeQuery = true)
+    void deleteDayWithoutMovements(@Param("date") LocalDate date, @Param("start") LocalDateTime start,
+                                   @Param("end") LocalDateTime end);
+
+    /**
+     * Cuenta las cuentas cuyo cierre de {@code date} (apertura + ingresos - egresos) no coincide con la apertura del
+     * siguiente día con movimientos. Una diferencia indica que el saldo cambió sin registrar una transacción.
+     *
+     * @param date día a verificar
+     * @return cantidad de cuentas con diferencias
+     */
+    @Query(value = "SELECT COUNT(*) FROM daily_balance_snapshots s "
+            + "JOIN daily_balance_snapshots n ON n.user_id = s.user_id AND n.snapshot_date = ("
+            + "SELECT MIN(x.snapshot_date) FROM daily_balance_snapshots x "
+            + "WHERE x.user_id = s.user_id AND x.snapshot_date > s.snapshot_date) "
+            + "WHERE s.snapshot_date = :date "
+            + "AND s.opening_balance + s.total_in - s.total_out <> n.opening_balance",
+            nativeQuery = true)
+    long countBalanceBreaks(@Param("date") LocalDate date);
+
+    /**
+     * Movimientos de un día agrupados por cuenta (rango sobre {@code idx_transactions_date}).
+     */
+    String LEDGER_DAY = "SELECT t.user_id, SUM(GREATEST(t.amount, 0)) AS total_in, "
+            + "SUM(GREATEST(-t.amount, 0)) AS total_out, COUNT(*) AS tx_count FROM transactions t "
+            + "WHERE t.transaction_date >= :start AND t.transaction_date < :end GROUP BY t.user_id";
+
+    /**
+     * Totales de un período.
+     */
+    interface PeriodTotals {
+        BigDecimal getTotalIn();
+
+        BigDecimal getTotalOut();
+
+        Long getTransactionCount();
+    }
+}
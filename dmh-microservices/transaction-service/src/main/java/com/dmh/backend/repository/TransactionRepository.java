@@ -1,42 +1,119 @@
 package com.dmh.backend.repository;
 
+import com.dmh.backend.dto.TransactionResponse;
 import com.dmh.backend.model.Transaction;
-import com.dmh.backend.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
- * Repositorio de transacciones.
+ * Repositorio de transacciones. Las consultas de actividad con filtros dinámicos se construyen con
+ * {@link TransactionSpecifications}.
+ * <p>
+ * Estrategia de lectura: los endpoints de consulta arman el DTO en la propia consulta (proyecciones por constructor),
+ * por lo que nunca inicializan {@code user}. Cuando se necesita la entidad con su usuario se usa el grafo
+ * {@code Transaction.user} en lugar de acceder a la asociación diferida, que dispararía una consulta por fila.
  */
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction> {
 
     /**
-     * Obtiene las últimas cinco transacciones de un usuario, ordenadas de más reciente a más antigua.
+     * Devuelve las transacciones más recientes de un usuario construyendo el DTO directamente en la consulta: no se
+     * cargan entidades en el contexto de persistencia ni se busca antes el usuario.
      *
-     * @param user usuario propietario de las transacciones
-     * @return lista de transacciones (hasta 5)
+     * @param userId   identificador del usuario
+     * @param pageable cantidad de resultados a devolver (primera página)
+     * @return transacciones ordenadas de más reciente a más antigua
      */
-    List<Transaction> findTop5ByUserOrderByDateDesc(User user);
+    @Query("select new com.dmh.backend.dto.TransactionResponse(t.id, t.amount, t.type, t.date, t.description) "
+            + "from Transaction t where t.user.id = :userId order by t.date desc, t.id desc")
+    List<TransactionResponse> findLatestByUserId(@Param("userId") Long userId, Pageable pageable);
 
     /**
-     * Devuelve todas las transacciones de un usuario, ordenadas de más reciente a más antigua.
-     * Utilizado para mostrar el historial completo de actividad.
+     * Busca una transacción por su id y usuario como DTO. Sirve para asegurar que un usuario sólo pueda acceder
+     * a sus propias transacciones.
      *
-     * @param user usuario propietario de las transacciones
-     * @return lista de transacciones
+     * @param id     identificador de la transacción
+     * @param userId identificador del usuario propietario
+     * @return la transacción si existe y pertenece al usuario
      */
-    List<Transaction> findByUserOrderByDateDesc(User user);
+    @Query("select new com.dmh.backend.dto.TransactionResponse(t.id, t.amount, t.type, t.date, t.description) "
+            + "from Transaction t where t.id = :id and t.user.id = :userId")
+    java.util.Optional<TransactionResponse> findResponseByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
 
     /**
-     * Busca una transacción por su id y usuario. Sirve para asegurar que un usuario sólo pueda acceder
-     * a sus propias transacciones.
+     * Recorre todas las transacciones de un usuario, de la más reciente a la más antigua, como DTOs. Con
+     * {@code fetchSize = Integer.MIN_VALUE} el driver de MySQL lee el resultado fila por fila desde el servidor en
+     * lugar de cargarlo completo en memoria, y al ser una proyección no se acumulan entidades en el contexto de
+     * persistencia. Debe consumirse dentro de una transacción y cerrarse al terminar; mientras está abierto la
+     * conexión no admite otras consultas.
+     *
+     * @param userId identificador del usuario
+     * @return flujo de transacciones del usuario
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("select new com.dmh.backend.dto.TransactionResponse(t.id, t.amount, t.type, t.date, t.description) "
+            + "from Transaction t where t.user.id = :userId order by t.date desc, t.id desc")
+    Stream<TransactionResponse> streamByUserId(@Param("userId") Long userId);
+
+    /**
+     * Agrupa los movimientos de un usuario en {@code [start, end)} por día, semana (desde el lunes) o mes, sumando
+     * ingresos y egresos en la base de datos. El rango por usuario y fecha se lee de
+     * {@code idx_transactions_user_date_id}, y sólo se devuelve una fila por período.
+     *
+     * @param userId  identificador del usuario
+     * @param groupBy {@code DAY}, {@code WEEK} o {@code MONTH}
+     * @param type    tipo de transacción, null para todos
+     * @param start   inicio del rango (inclusive)
+     * @param end     fin del rango (exclusive)
+     * @return totales por período, en orden ascendente
+     */
+    @Query(value = "SELECT CASE :groupBy "
+            + "WHEN 'DAY' THEN DATE(t.transaction_date) "
+            + "WHEN 'WEEK' THEN DATE(t.transaction_date) - INTERVAL WEEKDAY(t.transaction_date) DAY "
+            + "ELSE DATE(t.transaction_date) - INTERVAL (DAYOFMONTH(t.transaction_date) - 1) DAY END AS period, "
+            + "SUM(GREATEST(t.amount, 0)) AS totalIn, SUM(GREATEST(-t.amount, 0)) AS totalOut, "
+            + "COUNT(*) AS transactionCount FROM transactions t "
+            + "WHERE t.user_id = :userId AND t.transaction_date >= :start AND t.transaction_date < :end "
+            + "AND (:type IS NULL OR t.type = :type) "
+            + "GROUP BY period ORDER BY period",
+            nativeQuery = true)
+    List<SummaryView> summarize(@Param("userId") Long userId,
+                                @Param("groupBy") String groupBy,
+                                @Param("type") String type,
+                                @Param("start") java.time.LocalDateTime start,
+                                @Param("end") java.time.LocalDateTime end);
+
+    /**
+     * Busca una transacción junto con su usuario en una única consulta.
      *
-     * @param id    identificador de la transacción
-     * @param user  usuario propietario
-     * @return una transacción si existe
+     * @param id identificador de la transacción
+     * @return la transacción con el usuario inicializado
+     */
+    @Override
+    @EntityGraph("Transaction.user")
+    java.util.Optional<Transaction> findById(Long id);
+
+    /**
+     * Proyección con los totales de un período.
      */
-    java.util.Optional<Transaction> findByIdAndUser(Long id, User user);
-}
\ No newline at end of file
+    interface SummaryView {
+        java.time.LocalDate getPeriod();
+
+        java.math.BigDecimal getTotalIn();
+
+        java.math.BigDecimal getTotalOut();
+
+        Long getTransactionCount();
+    }
+}
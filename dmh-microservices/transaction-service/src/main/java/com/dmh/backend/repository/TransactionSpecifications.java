@@ -0,0 +1,93 @@
+package com.dmh.backend.repository;
+
+import com.dmh.backend.model.Transaction;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Predicados reutilizables para consultar transacciones con {@link TransactionRepository}. Cada método devuelve
+ * {@code null} cuando el filtro no aplica, de modo que pueden combinarse libremente con {@link Specification#where}.
+ */
+public final class TransactionSpecifications {
+
+    private TransactionSpecifications() {
+    }
+
+    /**
+     * Restringe las transacciones a las de un usuario. Se compara contra la columna {@code user_id} sin hacer join.
+     */
+    public static Specification<Transaction> belongsTo(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    /**
+     * Tipo de transacción sin distinguir mayúsculas. Los tipos se guardan en mayúsculas, así que se normaliza el
+     * parámetro y la columna se compara tal cual: envolverla en {@code UPPER} impide usar un índice.
+     */
+    public static Specification<Transaction> hasType(String type) {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("type"), type.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Fecha de inicio inclusive. Se compara contra el inicio del día para que la condición use el índice de fecha.
+     */
+    public static Specification<Transaction> onOrAfter(LocalDate startDate) {
+        if (startDate == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), startDate.atStartOfDay());
+    }
+
+    /**
+     * Fecha de fin inclusive, expresada como "antes del inicio del día siguiente".
+     */
+    public static Specification<Transaction> onOrBefore(LocalDate endDate) {
+        if (endDate == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThan(root.get("date"), endDate.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Monto mínimo inclusive sobre el valor absoluto, para abarcar egresos negativos.
+     */
+    public static Specification<Transaction> minAbsAmount(BigDecimal minAmount) {
+        if (minAmount == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(cb.abs(root.get("amount")), minAmount);
+    }
+
+    /**
+     * Monto máximo inclusive sobre el valor absoluto.
+     */
+    public static Specification<Transaction> maxAbsAmount(BigDecimal maxAmount) {
+        if (maxAmount == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(cb.abs(root.get("amount")), maxAmount);
+    }
+
+    /**
+     * Condición de paginación por keyset sobre {@code (transaction_date, id)} en orden descendente: devuelve las
+     * transacciones estrictamente posteriores (más antiguas) a la última fila de la página anterior.
+     *
+     * @param date fecha de la última transacción entregada, o null para la primera página
+     * @param id   id de la última transacción entregada
+     */
+    public static Specification<Transaction> before(LocalDateTime date, Long id) {
+        if (date == null || id == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("date"), date),
+                cb.and(cb.equal(root.get("date"), date), cb.lessThan(root.get("id"), id)));
+    }
+}
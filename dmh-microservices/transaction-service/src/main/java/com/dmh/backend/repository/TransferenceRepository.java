@@ -1,23 +1,96 @@
 package com.dmh.backend.repository;
 
 import com.dmh.backend.model.Transference;
-import com.dmh.backend.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
- * Repositorio para gestionar entidades {@link Transference}.
+ * Repositorio para gestionar entidades {@link Transference} y la tabla {@code recent_recipients} derivada de ellas.
+ * <p>
+ * Estrategia de lectura: los destinatarios recientes se leen como proyección desde {@code recent_recipients}, sin
+ * cargar transferencias. Cuando se necesita la entidad con sus usuarios se usa el grafo {@code Transference.parties}
+ * en lugar de acceder a las asociaciones diferidas.
  */
 @Repository
 public interface TransferenceRepository extends JpaRepository<Transference, Long> {
 
     /**
-     * Devuelve las últimas cinco transferencias realizadas por un usuario, ordenadas por fecha descendente.
+     * Registra (o mueve al frente) a {@code toUserId} entre los destinatarios recientes de {@code fromUserId}.
      *
-     * @param fromUser usuario emisor de la transferencia
-     * @return lista de transferencias
+     * @param fromUserId     usuario emisor
+     * @param toUserId       usuario destinatario
+     * @param lastTransferAt fecha de la transferencia
      */
-    List<Transference> findTop5ByFromUserOrderByDateDesc(User fromUser);
-}
\ No newline at end of file
+    @Modifying
+    @Query(value = "INSERT INTO recent_recipients (from_user_id, to_user_id, last_transfer_at) "
+            + "VALUES (:fromUserId, :toUserId, :lastTransferAt) AS new "
+            + "ON DUPLICATE KEY UPDATE last_transfer_at = GREATEST(recent_recipients.last_transfer_at, new.last_transfer_at)",
+            nativeQuery = true)
+    void upsertRecentRecipient(@Param("fromUserId") Long fromUserId,
+                               @Param("toUserId") Long toUserId,
+                               @Param("lastTransferAt") LocalDateTime lastTransferAt);
+
+    /**
+     * Elimina los destinatarios de {@code fromUserId} que quedaron fuera de los {@code keep} más recientes, para que
+     * la tabla tenga a lo sumo {@code keep} filas por cuenta. Los destinatarios se numeran por fecha y, a igual fecha,
+     * por id de destinatario (el mismo orden que {@link #findRecentRecipients}), así que dos transferencias en el
+     * mismo instante no pueden dejar más ni menos de {@code keep} filas. La numeración es una tabla derivada: se
+     * materializa y MySQL permite leer la misma tabla que se borra.
+     *
+     * @param fromUserId usuario emisor
+     * @param keep       cantidad de destinatarios a conservar
+     */
+    @Modifying
+    @Query(value = "DELETE r FROM recent_recipients r JOIN ("
+            + "SELECT to_user_id, ROW_NUMBER() OVER (ORDER BY last_transfer_at DESC, to_user_id DESC) AS position "
+            + "FROM recent_recipients WHERE from_user_id = :fromUserId) ranked ON ranked.to_user_id = r.to_user_id "
+            + "WHERE r.from_user_id = :fromUserId AND ranked.position > :keep",
+            nativeQuery = true)
+    void pruneRecentRecipients(@Param("fromUserId") Long fromUserId, @Param("keep") int keep);
+
+    /**
+     * Devuelve los destinatarios más recientes (distintos) de un usuario, del más reciente al más antiguo.
+     *
+     * @param fromUserId usuario emisor
+     * @param limit      cantidad máxima de destinatarios
+     * @return destinatarios con sus datos públicos
+     */
+    @Query(value = "SELECT u.id AS id, u.first_name AS firstName, u.last_name AS lastName, u.alias AS alias, "
+            + "u.cvu AS cvu FROM recent_recipients r JOIN users u ON u.id = r.to_user_id "
+            + "WHERE r.from_user_id = :fromUserId ORDER BY r.last_transfer_at DESC, r.to_user_id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<RecipientView> findRecentRecipients(@Param("fromUserId") Long fromUserId, @Param("limit") int limit);
+
+    /**
+     * Busca una transferencia junto con el usuario emisor y el destinatario en una única consulta.
+     *
+     * @param id identificador de la transferencia
+     * @return la transferencia con ambos usuarios inicializados
+     */
+    @Override
+    @EntityGraph("Transference.parties")
+    Optional<Transference> findById(Long id);
+
+    /**
+     * Proyección con los datos públicos de un destinatario.
+     */
+    interface RecipientView {
+        Long getId();
+
+        String getFirstName();
+
+        String getLastName();
+
+        String getAlias();
+
+        String getCvu();
+    }
+}
@@ -1,9 +1,17 @@
 package com.dmh.backend.repository;
 
+import com.dmh.backend.dto.AccountResponse;
+import com.dmh.backend.dto.UserResponse;
 import com.dmh.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,4 +28,53 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByCvu(String cvu);
 
     boolean existsByAlias(String alias);
+
+    /**
+     * Datos de la cuenta (CVU, alias y saldo) construidos directamente como DTO, sin cargar la entidad.
+     *
+     * @param id identificador del usuario
+     * @return la cuenta si el usuario existe
+     */
+    @Query("select new com.dmh.backend.dto.AccountResponse(u.id, u.cvu, u.alias, u.balance) from User u where u.id = :id")
+    Optional<AccountResponse> findAccountById(@Param("id") Long id);
+
+    /**
+     * Perfil del usuario (sin contraseña) construido directamente como DTO, sin cargar la entidad.
+     *
+     * @param id identificador del usuario
+     * @return el perfil si el usuario existe
+     */
+    @Query("select new com.dmh.backend.dto.UserResponse(u.id, u.firstName, u.lastName, u.dni, u.phoneNumber, "
+            + "u.email, u.cvu, u.alias, u.balance) from User u where u.id = :id")
+    Optional<UserResponse> findProfileById(@Param("id") Long id);
+
+    /**
+     * Suma {@code delta} al saldo del usuario en una única sentencia {@code UPDATE}, sin leer la entidad. La condición
+     * {@code balance + delta >= 0} hace que un débito sin fondos suficientes no modifique ninguna fila, de modo que
+     * el chequeo de saldo y la actualización son atómicos.
+     *
+     * @param id    identificador del usuario
+     * @param delta monto a sumar (negativo para debitar)
+     * @return cantidad de filas actualizadas: 0 si el usuario no existe o no tiene fondos suficientes
+     */
+    @Modifying
+    @Query("update User u set u.balance = u.balance + :delta where u.id = :id and u.balance + :delta >= 0")
+    int applyBalanceDelta(@Param("id") Long id, @Param("delta") BigDecimal delta);
+
+    /**
+     * Devuelve sólo el id y el alias de los usuarios indicados, sin cargar las entidades completas.
+     *
+     * @param ids identificadores de los usuarios
+     * @return proyecciones de los usuarios existentes
+     */
+    List<AliasView> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Proyección con el alias de una cuenta.
+     */
+    interface AliasView {
+        Long getId();
+
+        String getAlias();
+    }
 }
@@ -1,12 +1,14 @@
 package com.dmh.backend.security;
 
 import com.dmh.backend.model.User;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * Wrapper that adapts our {@link User} entity to Spring Security's {@link UserDetails} interface.
@@ -14,15 +16,39 @@ import java.util.Collections;
 public class CustomUserDetails implements UserDetails {
 
     private final User user;
+    private final Collection<? extends GrantedAuthority> authorities;
 
     public CustomUserDetails(User user) {
+        // For this sprint all users have the "USER" role. In the future roles could be persisted.
+        this(user, Collections.singleton(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    private CustomUserDetails(User user, Collection<? extends GrantedAuthority> authorities) {
         this.user = user;
+        this.authorities = authorities;
+    }
+
+    /**
+     * Build a principal from the signed claims of a JWT without querying the database. Only the id, email and
+     * authorities are available; profile fields (name, CVU, alias...) are null and password is never set.
+     *
+     * @param claims claims of a validated token that carries the {@link JwtTokenProvider#CLAIM_USER_ID} claim
+     * @return the principal described by the token
+     */
+    public static CustomUserDetails fromClaims(Claims claims) {
+        User user = new User();
+        user.setId(claims.get(JwtTokenProvider.CLAIM_USER_ID, Long.class));
+        user.setEmail(claims.getSubject());
+        List<?> roles = claims.get(JwtTokenProvider.CLAIM_ROLES, List.class);
+        Collection<? extends GrantedAuthority> authorities = roles == null
+                ? Collections.singleton(new SimpleGrantedAuthority("ROLE_USER"))
+                : roles.stream().map(role -> new SimpleGrantedAuthority(String.valueOf(role))).toList();
+        return new CustomUserDetails(user, authorities);
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        // For this sprint all users have the "USER" role. In the future roles could be persisted.
-        return Collections.singleton(new SimpleGrantedAuthority("ROLE_USER"));
+        return authorities;
     }
 
     @Override
@@ -3,6 +3,8 @@ package com.dmh.backend.security;
 import com.dmh.backend.model.User;
 import com.dmh.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -10,17 +12,32 @@ import org.springframework.stereotype.Service;
 
 /**
  * Custom implementation of {@link UserDetailsService} that loads users from the database.
+ * <p>
+ * Principals are cached by email in the {@value #PRINCIPAL_CACHE} cache (Caffeine, bounded and expiring, see
+ * {@code spring.cache.caffeine.spec}) so the JWT filter does not query the database on every request.
  */
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
+    public static final String PRINCIPAL_CACHE = "principals";
+
     private final UserRepository userRepository;
 
     @Override
+    @Cacheable(cacheNames = PRINCIPAL_CACHE, key = "#email")
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
         return new CustomUserDetails(user);
     }
+
+    /**
+     * Discard the cached principal for the given email, e.g. after the user's data changed.
+     *
+     * @param email the email the principal was cached under
+     */
+    @CacheEvict(cacheNames = PRINCIPAL_CACHE, key = "#email")
+    public void evict(String email) {
+    }
 }
@@ -0,0 +1,79 @@
+package com.dmh.backend.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * {@link RevokedTokenStore} shared by every instance through the {@code revoked_tokens} table (created by the
+ * user-service migrations).
+ * <p>
+ * Checks never hit the database: each instance keeps a local {@link InMemoryRevokedTokenStore} mirror that is
+ * refreshed every {@code dmh.security.revocation.sync-interval-ms} with the rows revoked since the last sync. A logout
+ * on another instance is therefore honoured here after at most one sync interval.
+ */
+@Component
+@ConditionalOnProperty(name = "dmh.security.revocation.store", havingValue = "jdbc")
+@RequiredArgsConstructor
+public class JdbcRevokedTokenStore implements RevokedTokenStore {
+
+    /**
+     * Each sync re-reads this window before the newest row seen, to pick up rows committed late or written by an
+     * instance whose clock is slightly behind. Re-applying a row is harmless.
+     */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InMemoryRevokedTokenStore local = new InMemoryRevokedTokenStore();
+    private volatile long lastRevokedAtMillis = 0L;
+
+    @Override
+    public void revoke(String tokenId, Instant expiresAt) {
+        long now = System.currentTimeMillis();
+        if (expiresAt.toEpochMilli() <= now) {
+            return;
+        }
+        jdbcTemplate.update("INSERT IGNORE INTO revoked_tokens (jti, expires_at, revoked_at) VALUES (?, ?, ?)",
+                tokenId, expiresAt.toEpochMilli(), now);
+        local.revoke(tokenId, expiresAt);
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        return local.isRevoked(tokenId);
+    }
+
+    @Override
+    public Collection<String> activeTokenIds() {
+        return local.activeTokenIds();
+    }
+
+    /**
+     * Load the revocations written since the last sync (by any instance) into the local mirror.
+     */
+    @Scheduled(fixedDelayString = "${dmh.security.revocation.sync-interval-ms:5000}")
+    public void sync() {
+        long since = lastRevokedAtMillis - SYNC_OVERLAP.toMillis();
+        jdbcTemplate.query("SELECT jti, expires_at, revoked_at FROM revoked_tokens WHERE revoked_at > ? AND expires_at > ?",
+                rs -> {
+                    local.revoke(rs.getString("jti"), Instant.ofEpochMilli(rs.getLong("expires_at")));
+                    lastRevokedAtMillis = Math.max(lastRevokedAtMillis, rs.getLong("revoked_at"));
+                },
+                since, System.currentTimeMillis());
+    }
+
+    /**
+     * Drop expired revocations from the local mirror and from the shared table.
+     */
+    @Scheduled(fixedDelayString = "${dmh.security.revocation.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        local.purgeExpired();
+        jdbcTemplate.update("DELETE FROM revoked_tokens WHERE expires_at <= ?", System.currentTimeMillis());
+    }
+}
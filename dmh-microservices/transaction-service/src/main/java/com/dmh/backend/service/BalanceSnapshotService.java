@@ -0,0 +1,113 @@
+package com.dmh.backend.service;
+
+import com.dmh.backend.dto.BalanceAtDateResponse;
+import com.dmh.backend.dto.PeriodSummaryResponse;
+import com.dmh.backend.repository.DailyBalanceSnapshotRepository;
+import com.dmh.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Servicio de resúmenes diarios de saldo. Cada movimiento suma al resumen del día de su cuenta
+ * ({@link #recordMovement}), y con esos resúmenes se responden saldos históricos y totales por período sin recorrer
+ * las transacciones: el saldo al cierre de un día es la apertura del siguiente día con movimientos (o el saldo actual
+ * si no hubo ninguno después).
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceSnapshotService.class);
+
+    private final DailyBalanceSnapshotRepository snapshotRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * Registra un movimiento en el resumen del día. Debe llamarse dentro de la transacción del movimiento y después de
+     * actualizar el saldo de la cuenta.
+     *
+     * @param userId identificador de la cuenta
+     * @param date   día del movimiento
+     * @param amount monto del movimiento, positivo para ingresos y negativo para egresos
+     */
+    @Transactional
+    public void recordMovement(Long userId, LocalDate date, BigDecimal amount) {
+        snapshotRepository.recordMovement(userId, date, amount);
+    }
+
+    /**
+     * Obtiene el saldo de una cuenta al cierre de un día.
+     *
+     * @param userId identificador de la cuenta
+     * @param date   día consultado
+     * @return saldo al cierre del día
+     */
+    @Transactional(readOnly = true)
+    public BalanceAtDateResponse getBalanceAt(Long userId, LocalDate date) {
+        return new BalanceAtDateResponse(userId, date, balanceAtEndOf(userId, date));
+    }
+
+    /**
+     * Obtiene el resumen de los movimientos de una cuenta entre dos fechas (inclusive).
+     *
+     * @param userId identificador de la cuenta
+     * @param from   fecha inicial
+     * @param to     fecha final
+     * @return saldos de apertura y cierre y totales del período
+     */
+    @Transactional(readOnly = true)
+    public PeriodSummaryResponse getPeriodSummary(Long userId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        BigDecimal opening = balanceAtEndOf(userId, from.minusDays(1));
+        DailyBalanceSnapshotRepository.PeriodTotals totals = snapshotRepository.sumPeriod(userId, from, to);
+        BigDecimal closing = opening.add(totals.getTotalIn()).subtract(totals.getTotalOut());
+        return new PeriodSummaryResponse(userId, from, to, opening, totals.getTotalIn(), totals.getTotalOut(),
+                closing, totals.getTransactionCount());
+    }
+
+    private BigDecimal balanceAtEndOf(Long userId, LocalDate date) {
+        List<BigDecimal> next = snapshotRepository.findOpeningBalancesAfter(userId, date, PageRequest.of(0, 1));
+        if (!next.isEmpty()) {
+            return next.get(0);
+        }
+        // Sin movimientos posteriores el saldo no cambió desde entonces
+        return userRepository.findAccountById(userId)
+                .orElseThrow(() -> new NoSuchElementException("User not found"))
+                .getBalance();
+    }
+
+    /**
+     * Concilia los resúmenes del día anterior con las transacciones. Los totales que no coinciden se recalculan desde
+     * las transacciones y se eliminan los resúmenes de cuentas sin movimientos ese día; un cierre que no coincide con la apertura del siguiente día con movimientos sólo se informa,
+     * porque indica un saldo modificado sin registrar la transacción y no un error del resumen. Es idempotente, por lo
+     * que puede ejecutarse en todas las instancias.
+     */
+    @Scheduled(cron = "${dmh.snapshots.reconcile-cron:0 30 0 * * *}")
+    @Transactional
+    public void reconcile() {
+        LocalDate day = LocalDate.now().minusDays(1);
+        long mismatches = snapshotRepository.countMismatches(day, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        if (mismatches > 0) {
+            log.warn("Daily balance snapshots for {} differ from the ledger for {} accounts; rebuilding their totals",
+                    day, mismatches);
+            snapshotRepository.repairDay(day, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+            snapshotRepository.deleteDayWithoutMovements(day, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        }
+        long breaks = snapshotRepository.countBalanceBreaks(day);
+        if (breaks > 0) {
+            log.warn("Closing balance for {} does not match the next opening balance for {} accounts", day, breaks);
+        }
+    }
+}
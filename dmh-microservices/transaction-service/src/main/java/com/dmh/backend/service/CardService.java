@@ -3,15 +3,15 @@ package com.dmh.backend.service;
 import com.dmh.backend.dto.CardResponse;
 import com.dmh.backend.dto.CreateCardRequest;
 import com.dmh.backend.model.Card;
-import com.dmh.backend.model.User;
 import com.dmh.backend.repository.CardRepository;
+import com.dmh.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.stream.Collectors;
 
 /**
  * Servicio para la gestión de tarjetas asociadas a un usuario.
@@ -21,19 +21,22 @@ import java.util.stream.Collectors;
 public class CardService {
 
     private final CardRepository cardRepository;
-    private final UserService userService;
+    private final UserRepository userRepository;
 
     /**
-     * Devuelve todas las tarjetas asociadas al usuario.
+     * Devuelve todas las tarjetas asociadas al usuario. El DTO se arma en la consulta; sólo si no hay tarjetas se
+     * verifica que el usuario exista, para responder 404.
      *
      * @param userId identificador del usuario
      * @return lista de tarjetas convertidas a DTO
      */
+    @Transactional(readOnly = true)
     public List<CardResponse> listCards(Long userId) {
-        User user = userService.getUserById(userId);
-        return cardRepository.findByUser(user).stream()
-                .map(card -> new CardResponse(card.getId(), card.getCardNumber(), card.getHolderName(), card.getExpirationDate()))
-                .collect(Collectors.toList());
+        List<CardResponse> cards = cardRepository.findResponsesByUserId(userId);
+        if (cards.isEmpty() && !userRepository.existsById(userId)) {
+            throw new NoSuchElementException("User not found");
+        }
+        return cards;
     }
 
     /**
@@ -43,9 +46,9 @@ public class CardService {
      * @param cardId identificador de la tarjeta
      * @return DTO de la tarjeta
      */
+    @Transactional(readOnly = true)
     public CardResponse getCard(Long userId, Long cardId) {
-        User user = userService.getUserById(userId);
-        Card card = cardRepository.findByIdAndUser(cardId, user)
+        Card card = cardRepository.findByIdAndUserId(cardId, userId)
                 .orElseThrow(() -> new NoSuchElementException("Card not found"));
         return new CardResponse(card.getId(), card.getCardNumber(), card.getHolderName(), card.getExpirationDate());
     }
@@ -57,14 +60,18 @@ public class CardService {
      * @param request datos de la tarjeta
      * @return DTO de la tarjeta creada
      */
+    @Transactional
     public CardResponse addCard(Long userId, CreateCardRequest request) {
-        User user = userService.getUserById(userId);
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException("User not found");
+        }
         // Comprobar si el número de tarjeta ya existe
         if (cardRepository.existsByCardNumber(request.getCardNumber())) {
             throw new DataIntegrityViolationException("Card number already exists");
         }
         Card card = new Card();
-        card.setUser(user);
+        // Referencia sin SELECT: sólo se necesita la clave foránea
+        card.setUser(userRepository.getReferenceById(userId));
         card.setCardNumber(request.getCardNumber());
         card.setHolderName(request.getHolderName());
         card.setExpirationDate(request.getExpirationDate());
@@ -78,10 +85,10 @@ public class CardService {
      * @param userId identificador del usuario
      * @param cardId identificador de la tarjeta
      */
+    @Transactional
     public void deleteCard(Long userId, Long cardId) {
-        User user = userService.getUserById(userId);
-        Card card = cardRepository.findByIdAndUser(cardId, user)
-                .orElseThrow(() -> new NoSuchElementException("Card not found"));
-        cardRepository.delete(card);
+        if (cardRepository.deleteByIdAndUserId(cardId, userId) == 0) {
+            throw new NoSuchElementException("Card not found");
+        }
     }
 }
\ No newline at end of file
@@ -1,14 +1,31 @@
 package com.dmh.backend.service;
 
+import com.dmh.backend.dto.ActivityCursor;
+import com.dmh.backend.dto.ActivityExportFormat;
+import com.dmh.backend.dto.ActivityPageResponse;
+import com.dmh.backend.dto.ActivitySummaryResponse;
 import com.dmh.backend.dto.TransactionResponse;
 import com.dmh.backend.model.Transaction;
-import com.dmh.backend.model.User;
 import com.dmh.backend.repository.TransactionRepository;
+import com.dmh.backend.repository.TransactionSpecifications;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Servicio para operaciones relacionadas con transacciones.
@@ -17,33 +34,43 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class TransactionService {
 
+    /**
+     * Tamaño máximo de página permitido para la consulta de actividad.
+     */
+    public static final int MAX_ACTIVITY_PAGE_SIZE = 100;
+
+    /**
+     * Cantidad máxima de períodos que puede devolver el resumen de actividad.
+     */
+    public static final int MAX_SUMMARY_PERIODS = 366;
+
     private final TransactionRepository transactionRepository;
-    private final UserService userService;
     private final com.dmh.backend.repository.UserRepository userRepository;
     private final com.dmh.backend.service.CardService cardService;
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final PlatformTransactionManager transactionManager;
+    private final com.fasterxml.jackson.databind.ObjectMapper objectMapper;
 
     /**
-     * Obtiene las últimas cinco transacciones de un usuario dado su identificador.
+     * Obtiene las últimas cinco transacciones de un usuario dado su identificador. El DTO se arma en la consulta;
+     * sólo si no hay resultados se verifica que el usuario exista, para responder 404.
      *
      * @param userId identificador del usuario
      * @return lista de transacciones convertidas a DTO
      */
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public List<TransactionResponse> getLastTransactions(Long userId) {
-        User user = userService.getUserById(userId);
-        List<Transaction> transactions = transactionRepository.findTop5ByUserOrderByDateDesc(user);
-        return transactions.stream()
-                .map(tx -> new TransactionResponse(
-                        tx.getId(),
-                        tx.getAmount(),
-                        tx.getType(),
-                        tx.getDate(),
-                        tx.getDescription()))
-                .collect(Collectors.toList());
+        List<TransactionResponse> transactions = transactionRepository.findLatestByUserId(userId, PageRequest.of(0, 5));
+        if (transactions.isEmpty() && !userRepository.existsById(userId)) {
+            throw new java.util.NoSuchElementException("User not found");
+        }
+        return transactions;
     }
 
     /**
-     * Obtiene el historial de actividad de un usuario aplicando filtros opcionales. Las transacciones se devuelven
-     * en orden descendente por fecha (más reciente primero).
+     * Obtiene una página del historial de actividad de un usuario aplicando filtros opcionales. Los filtros se
+     * resuelven en la base de datos y la paginación es por keyset sobre {@code (fecha, id)} en orden descendente
+     * (más reciente primero), por lo que el costo depende del tamaño de página y no del historial de la cuenta.
      *
      * @param userId    identificador del usuario
      * @param minAmount monto mínimo (inclusive) para filtrar, puede ser null
@@ -51,53 +78,47 @@ public class TransactionService {
      * @param startDate fecha de inicio (inclusive) para filtrar, puede ser null
      * @param endDate   fecha de fin (inclusive) para filtrar, puede ser null
      * @param type      tipo de transacción (ingreso/egreso), puede ser null
-     * @return lista de transacciones convertidas a DTO
+     * @param cursor    cursor devuelto por la página anterior, null para la primera página
+     * @param size      cantidad máxima de transacciones a devolver
+     * @return página de transacciones convertidas a DTO junto con el cursor de la página siguiente
      */
-    public List<TransactionResponse> getActivity(Long userId,
-                                                 java.math.BigDecimal minAmount,
-                                                 java.math.BigDecimal maxAmount,
-                                                 java.time.LocalDate startDate,
-                                                 java.time.LocalDate endDate,
-                                                 String type) {
-        User user = userService.getUserById(userId);
-        List<Transaction> transactions = transactionRepository.findByUserOrderByDateDesc(user);
-        return transactions.stream()
-                .filter(tx -> {
-                    // Filtrar por tipo si se proporciona
-                    if (type != null && !type.isBlank()) {
-                        return tx.getType().equalsIgnoreCase(type);
-                    }
-                    return true;
-                })
-                .filter(tx -> {
-                    // Filtrar por fecha de inicio
-                    if (startDate != null) {
-                        return !tx.getDate().toLocalDate().isBefore(startDate);
-                    }
-                    return true;
-                })
-                .filter(tx -> {
-                    // Filtrar por fecha de fin
-                    if (endDate != null) {
-                        return !tx.getDate().toLocalDate().isAfter(endDate);
-                    }
-                    return true;
-                })
-                .filter(tx -> {
-                    // Filtrar por monto mínimo
-                    if (minAmount != null) {
-                        // Usar valor absoluto para abarcar egresos negativos
-                        return tx.getAmount().abs().compareTo(minAmount) >= 0;
-                    }
-                    return true;
-                })
-                .filter(tx -> {
-                    // Filtrar por monto máximo
-                    if (maxAmount != null) {
-                        return tx.getAmount().abs().compareTo(maxAmount) <= 0;
-                    }
-                    return true;
-                })
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public ActivityPageResponse getActivity(Long userId,
+                                            java.math.BigDecimal minAmount,
+                                            java.math.BigDecimal maxAmount,
+                                            java.time.LocalDate startDate,
+                                            java.time.LocalDate endDate,
+                                            String type,
+                                            String cursor,
+                                            int size) {
+        if (size < 1 || size > MAX_ACTIVITY_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_ACTIVITY_PAGE_SIZE);
+        }
+        ActivityCursor position = cursor != null && !cursor.isBlank() ? ActivityCursor.decode(cursor) : null;
+        Specification<Transaction> spec = Specification.where(TransactionSpecifications.belongsTo(userId))
+                .and(TransactionSpecifications.hasType(type))
+                .and(TransactionSpecifications.onOrAfter(startDate))
+                .and(TransactionSpecifications.onOrBefore(endDate))
+                .and(TransactionSpecifications.minAbsAmount(minAmount))
+                .and(TransactionSpecifications.maxAbsAmount(maxAmount))
+                .and(position != null ? TransactionSpecifications.before(position.getDate(), position.getId()) : null);
+        // Se pide una fila extra para saber si existe una página siguiente sin ejecutar un COUNT
+        List<Transaction> rows = transactionRepository.findBy(spec, q -> q
+                .sortBy(Sort.by(Sort.Order.desc("date"), Sort.Order.desc("id")))
+                .limit(size + 1)
+                .all());
+        // Sin resultados en la primera página se verifica que la cuenta exista, para responder 404
+        if (rows.isEmpty() && position == null && !userRepository.existsById(userId)) {
+            throw new java.util.NoSuchElementException("User not found");
+        }
+        boolean hasMore = rows.size() > size;
+        List<Transaction> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Transaction last = page.get(page.size() - 1);
+            nextCursor = new ActivityCursor(last.getDate(), last.getId()).encode();
+        }
+        List<TransactionResponse> items = page.stream()
                 .map(tx -> new TransactionResponse(
                         tx.getId(),
                         tx.getAmount(),
@@ -105,6 +126,136 @@ public class TransactionService {
                         tx.getDate(),
                         tx.getDescription()))
                 .collect(Collectors.toList());
+        return new ActivityPageResponse(items, nextCursor);
+    }
+
+    /**
+     * Obtiene los totales de ingresos y egresos de un usuario agrupados por día, semana o mes. La agregación se hace
+     * en la base de datos, por lo que sólo se transfiere una fila por período. Sin fechas se usan los últimos 30
+     * días, 12 semanas o 12 meses (hasta hoy) según la agrupación.
+     *
+     * @param userId    identificador del usuario
+     * @param groupBy   agrupación: {@code day}, {@code week} o {@code month}
+     * @param type      tipo de transacción, puede ser null
+     * @param startDate fecha de inicio (inclusive), puede ser null
+     * @param endDate   fecha de fin (inclusive), puede ser null
+     * @return totales por período en orden ascendente; los períodos sin movimientos se omiten
+     */
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    public List<ActivitySummaryResponse> getActivitySummary(Long userId,
+                                                            String groupBy,
+                                                            String type,
+                                                            java.time.LocalDate startDate,
+                                                            java.time.LocalDate endDate) {
+        String grouping = groupBy.trim().toUpperCase(java.util.Locale.ROOT);
+        java.time.temporal.ChronoUnit unit;
+        switch (grouping) {
+            case "DAY" -> unit = java.time.temporal.ChronoUnit.DAYS;
+            case "WEEK" -> unit = java.time.temporal.ChronoUnit.WEEKS;
+            case "MONTH" -> unit = java.time.temporal.ChronoUnit.MONTHS;
+            default -> throw new IllegalArgumentException("groupBy must be one of day, week or month");
+        }
+        java.time.LocalDate end = endDate != null ? endDate : java.time.LocalDate.now();
+        java.time.LocalDate start = startDate;
+        if (start == null) {
+            // Por defecto el primer período es completo
+            start = switch (unit) {
+                case DAYS -> end.minusDays(29);
+                case WEEKS -> end.minusWeeks(11).with(java.time.DayOfWeek.MONDAY);
+                default -> end.minusMonths(11).withDayOfMonth(1);
+            };
+        }
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        if (unit.between(start, end) >= MAX_SUMMARY_PERIODS) {
+            throw new IllegalArgumentException("Date range too large: at most " + MAX_SUMMARY_PERIODS + " periods");
+        }
+        String txType = type != null && !type.isBlank() ? type.trim().toUpperCase(java.util.Locale.ROOT) : null;
+        List<ActivitySummaryResponse> summary = transactionRepository
+                .summarize(userId, grouping, txType, start.atStartOfDay(), end.plusDays(1).atStartOfDay()).stream()
+                .map(row -> new ActivitySummaryResponse(row.getPeriod(), row.getTotalIn(), row.getTotalOut(),
+                        row.getTransactionCount()))
+                .collect(Collectors.toList());
+        if (summary.isEmpty() && !userRepository.existsById(userId)) {
+            throw new java.util.NoSuchElementException("User not found");
+        }
+        return summary;
+    }
+
+    /**
+     * Prepara la exportación de todo el historial de un usuario, del movimiento más reciente al más antiguo. La
+     * existencia de la cuenta se verifica antes de devolver el cuerpo, para poder responder 404; las filas se leen
+     * con un cursor de sólo avance ({@link TransactionRepository#streamByUserId}) y se escriben directamente en la
+     * respuesta, por lo que la memoria usada no depende de la cantidad de movimientos.
+     *
+     * @param userId identificador del usuario
+     * @param format formato de salida
+     * @return cuerpo de la respuesta, que se escribe fuera del hilo de la petición
+     */
+    public StreamingResponseBody exportActivity(Long userId, ActivityExportFormat format) {
+        if (!userRepository.existsById(userId)) {
+            throw new java.util.NoSuchElementException("User not found");
+        }
+        // El cuerpo se escribe en otro hilo, después de que este método terminó: la transacción que mantiene
+        // abierto el cursor se abre ahí
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+            if (format == ActivityExportFormat.CSV) {
+                writer.write("id,amount,type,date,description\r\n");
+            }
+            // Enviar los encabezados de inmediato: el gateway espera la respuesta con un timeout acotado
+            writer.flush();
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<TransactionResponse> rows = transactionRepository.streamByUserId(userId)) {
+                    rows.forEach(row -> writeRow(writer, format, row));
+                }
+            });
+            writer.flush();
+        };
+    }
+
+    private void writeRow(Writer writer, ActivityExportFormat format, TransactionResponse row) {
+        try {
+            if (format == ActivityExportFormat.CSV) {
+                writer.write(row.getId().toString());
+                writer.write(',');
+                writer.write(row.getAmount().toPlainString());
+                writer.write(',');
+                writer.write(csvField(row.getType()));
+                writer.write(',');
+                writer.write(row.getDate().toString());
+                writer.write(',');
+                writer.write(csvField(row.getDescription()));
+                writer.write("\r\n");
+            } else {
+                writer.write(objectMapper.writeValueAsString(row));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Escapa un campo CSV según RFC 4180: se encierra entre comillas si contiene separadores, comillas o saltos de
+     * línea, duplicando las comillas internas. Un valor que empieza con {@code =}, {@code +}, {@code -}, {@code @},
+     * tabulación o retorno de carro se antepone con {@code '} para que una planilla no lo evalúe como fórmula
+     * (la descripción la escribe el usuario).
+     */
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
     }
 
     /**
@@ -114,11 +265,10 @@ public class TransactionService {
      * @param transactionId  identificador de la transacción
      * @return DTO con los datos de la transacción
      */
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public TransactionResponse getTransaction(Long userId, Long transactionId) {
-        User user = userService.getUserById(userId);
-        Transaction tx = transactionRepository.findByIdAndUser(transactionId, user)
+        return transactionRepository.findResponseByIdAndUserId(transactionId, userId)
                 .orElseThrow(() -> new java.util.NoSuchElementException("Transaction not found"));
-        return new TransactionResponse(tx.getId(), tx.getAmount(), tx.getType(), tx.getDate(), tx.getDescription());
     }
 
     /**
@@ -134,21 +284,17 @@ public class TransactionService {
         // Validar existencia de la tarjeta y propiedad
         // El CardService lanzará NoSuchElementException si la tarjeta no existe o no pertenece al usuario
         com.dmh.backend.dto.CardResponse card = cardService.getCard(userId, request.getCardId());
-        // Obtener usuario
-        User user = userService.getUserById(userId);
         java.math.BigDecimal amount = request.getAmount();
         if (amount == null || amount.compareTo(java.math.BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Amount must be positive");
         }
-        // Actualizar saldo del usuario
-        java.math.BigDecimal newBalance = user.getBalance().add(amount);
-        user.setBalance(newBalance);
-        // Guardar actualización
-        // Persistir el nuevo saldo en base de datos
-        userRepository.save(user);
+        // Actualizar saldo del usuario con un único UPDATE atómico
+        if (userRepository.applyBalanceDelta(userId, amount) == 0) {
+            throw new java.util.NoSuchElementException("User not found");
+        }
         // Crear transacción
         Transaction tx = new Transaction();
-        tx.setUser(user);
+        tx.setUser(userRepository.getReferenceById(userId));
         tx.setAmount(amount);
         tx.setType("INCOME");
         tx.setDate(java.time.LocalDateTime.now());
@@ -162,6 +308,7 @@ public class TransactionService {
         }
         tx.setDescription(desc);
         Transaction saved = transactionRepository.save(tx);
+        balanceSnapshotService.recordMovement(userId, tx.getDate().toLocalDate(), amount);
         return new TransactionResponse(saved.getId(), saved.getAmount(), saved.getType(), saved.getDate(), saved.getDescription());
     }
 
@@ -15,9 +15,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
@@ -28,12 +29,20 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class TransferenceService {
 
+    /**
+     * Cantidad de destinatarios distintos que se conservan y devuelven por cuenta.
+     */
+    public static final int RECENT_RECIPIENTS = 5;
+
     private final TransferenceRepository transferenceRepository;
     private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
+    private final BalanceSnapshotService balanceSnapshotService;
 
     /**
-     * Realiza una transferencia de una cuenta a otra.
+     * Realiza una transferencia de una cuenta a otra. Los saldos se modifican con UPDATEs atómicos
+     * ({@code balance = balance + delta}), por lo que transferencias concurrentes sobre las mismas cuentas no pierden
+     * actualizaciones y el chequeo de fondos no puede quedar desactualizado.
      *
      * @param fromUserId identificador del usuario origen (cuenta emisora)
      * @param request    datos de la transferencia
@@ -41,28 +50,37 @@ public class TransferenceService {
      */
     @Transactional
     public TransferResponse transfer(Long fromUserId, TransferRequest request) {
-        // Obtener usuarios origen y destino
-        User fromUser = userRepository.findById(fromUserId)
-                .orElseThrow(() -> new NoSuchElementException("Account not found"));
-        User toUser = userRepository.findById(request.getToAccountId())
-                .orElseThrow(() -> new NoSuchElementException("Destination account not found"));
+        Long toUserId = request.getToAccountId();
         // Validar que no se transfiera a sí mismo
-        if (fromUser.getId().equals(toUser.getId())) {
+        if (fromUserId.equals(toUserId)) {
             throw new IllegalArgumentException("Cannot transfer to the same account");
         }
         BigDecimal amount = request.getAmount();
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Amount must be positive");
         }
-        // Validar fondos suficientes
-        if (fromUser.getBalance().compareTo(amount) < 0) {
-            throw new InsufficientFundsException("Insufficient funds");
+        // Obtener sólo los alias de ambas cuentas (también confirma que existen)
+        Map<Long, String> aliases = userRepository.findByIdIn(List.of(fromUserId, toUserId)).stream()
+                .collect(Collectors.toMap(UserRepository.AliasView::getId, UserRepository.AliasView::getAlias));
+        String fromAlias = aliases.get(fromUserId);
+        if (fromAlias == null) {
+            throw new NoSuchElementException("Account not found");
         }
-        // Actualizar saldos
-        fromUser.setBalance(fromUser.getBalance().subtract(amount));
-        toUser.setBalance(toUser.getBalance().add(amount));
-        userRepository.save(fromUser);
-        userRepository.save(toUser);
+        String toAlias = aliases.get(toUserId);
+        if (toAlias == null) {
+            throw new NoSuchElementException("Destination account not found");
+        }
+        // Actualizar saldos con UPDATEs atómicos, siempre en orden ascendente de id: dos transferencias cruzadas
+        // (A->B y B->A) bloquean las filas en el mismo orden y no pueden quedar en deadlock
+        if (fromUserId < toUserId) {
+            debit(fromUserId, amount);
+            userRepository.applyBalanceDelta(toUserId, amount);
+        } else {
+            userRepository.applyBalanceDelta(toUserId, amount);
+            debit(fromUserId, amount);
+        }
+        User fromUser = userRepository.getReferenceById(fromUserId);
+        User toUser = userRepository.getReferenceById(toUserId);
         // Crear registro de transferencia
         Transference transference = new Transference();
         transference.setFromUser(fromUser);
@@ -72,7 +90,7 @@ public class TransferenceService {
         transference.setDate(now);
         String description = request.getDescription();
         if (description == null || description.isBlank()) {
-            description = "Transferencia a " + toUser.getAlias();
+            description = "Transferencia a " + toAlias;
         }
         transference.setDescription(description);
         Transference savedTransference = transferenceRepository.save(transference);
@@ -82,35 +100,55 @@ public class TransferenceService {
         outTx.setAmount(amount.negate());
         outTx.setType("TRANSFER_OUT");
         outTx.setDate(now);
-        outTx.setDescription("Transfer to " + toUser.getAlias());
+        outTx.setDescription("Transfer to " + toAlias);
         transactionRepository.save(outTx);
         Transaction inTx = new Transaction();
         inTx.setUser(toUser);
         inTx.setAmount(amount);
         inTx.setType("TRANSFER_IN");
         inTx.setDate(now);
-        inTx.setDescription("Transfer from " + fromUser.getAlias());
+        inTx.setDescription("Transfer from " + fromAlias);
         transactionRepository.save(inTx);
-        return new TransferResponse(savedTransference.getId(), fromUser.getId(), toUser.getId(), amount, now, description);
+        // Resúmenes diarios de ambas cuentas, en el mismo orden en que se bloquearon sus saldos
+        LocalDate today = now.toLocalDate();
+        if (fromUserId < toUserId) {
+            balanceSnapshotService.recordMovement(fromUserId, today, amount.negate());
+            balanceSnapshotService.recordMovement(toUserId, today, amount);
+        } else {
+            balanceSnapshotService.recordMovement(toUserId, today, amount);
+            balanceSnapshotService.recordMovement(fromUserId, today, amount.negate());
+        }
+        // Mantener la lista de últimos destinatarios en la misma transacción
+        transferenceRepository.upsertRecentRecipient(fromUserId, toUserId, now);
+        transferenceRepository.pruneRecentRecipients(fromUserId, RECENT_RECIPIENTS);
+        return new TransferResponse(savedTransference.getId(), fromUserId, toUserId, amount, now, description);
     }
 
     /**
-     * Obtiene los destinatarios de las últimas transferencias realizadas por un usuario.
+     * Debita el monto de la cuenta. Como la existencia de la cuenta ya fue verificada, que no se actualice ninguna
+     * fila significa que el saldo no alcanza.
+     */
+    private void debit(Long userId, BigDecimal amount) {
+        if (userRepository.applyBalanceDelta(userId, amount.negate()) == 0) {
+            throw new InsufficientFundsException("Insufficient funds");
+        }
+    }
+
+    /**
+     * Obtiene los últimos destinatarios distintos a los que transfirió un usuario, del más reciente al más antiguo.
+     * Se leen de {@code recent_recipients}, que cada transferencia mantiene actualizada, en una única consulta.
      *
      * @param fromUserId identificador del usuario emisor
-     * @return lista de destinatarios
+     * @return lista de hasta {@link #RECENT_RECIPIENTS} destinatarios
      */
+    @Transactional(readOnly = true)
     public List<RecipientResponse> getLastRecipients(Long fromUserId) {
-        User fromUser = userRepository.findById(fromUserId)
-                .orElseThrow(() -> new NoSuchElementException("Account not found"));
-        List<Transference> transfers = transferenceRepository.findTop5ByFromUserOrderByDateDesc(fromUser);
-        // Utilizar LinkedHashSet para eliminar duplicados manteniendo el orden de aparición
-        LinkedHashSet<User> recipients = new LinkedHashSet<>();
-        for (Transference t : transfers) {
-            recipients.add(t.getToUser());
-        }
-        return recipients.stream()
-                .map(u -> new RecipientResponse(u.getId(), u.getFirstName(), u.getLastName(), u.getAlias(), u.getCvu()))
+        List<RecipientResponse> recipients = transferenceRepository.findRecentRecipients(fromUserId, RECENT_RECIPIENTS).stream()
+                .map(r -> new RecipientResponse(r.getId(), r.getFirstName(), r.getLastName(), r.getAlias(), r.getCvu()))
                 .collect(Collectors.toList());
+        if (recipients.isEmpty() && !userRepository.existsById(fromUserId)) {
+            throw new NoSuchElementException("Account not found");
+        }
+        return recipients;
     }
 }
\ No newline at end of file
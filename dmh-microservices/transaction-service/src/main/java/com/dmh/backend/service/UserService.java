@@ -7,6 +7,8 @@ import com.dmh.backend.model.User;
 import com.dmh.backend.repository.UserRepository;
 import com.dmh.backend.security.JwtTokenProvider;
 import com.dmh.backend.security.CustomUserDetails;
+import com.dmh.backend.security.CustomUserDetailsService;
+import com.dmh.backend.security.RevokedTokenStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -15,6 +17,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import jakarta.annotation.PostConstruct;
 import java.io.BufferedReader;
@@ -36,12 +40,8 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
-
-    /**
-     * In-memory store for revoked JWT tokens. In a production scenario this could be persisted in a cache
-     * like Redis or a database table to scale horizontally.
-     */
-    private final Set<String> revokedTokens = Collections.synchronizedSet(new HashSet<>());
+    private final CustomUserDetailsService customUserDetailsService;
+    private final RevokedTokenStore revokedTokenStore;
 
     /**
      * Word list used to generate random aliases. Loaded at startup from classpath.
@@ -128,24 +128,16 @@ public class UserService {
      * @param id identificador del usuario
      * @return DTO con los datos del usuario
      */
+    @Transactional(readOnly = true)
     public com.dmh.backend.dto.UserResponse getUserProfile(Long id) {
-        User user = getUserById(id);
-        return new com.dmh.backend.dto.UserResponse(
-                user.getId(),
-                user.getFirstName(),
-                user.getLastName(),
-                user.getDni(),
-                user.getPhoneNumber(),
-                user.getEmail(),
-                user.getCvu(),
-                user.getAlias(),
-                user.getBalance()
-        );
+        return userRepository.findProfileById(id)
+                .orElseThrow(() -> new java.util.NoSuchElementException("User not found"));
     }
 
     /**
      * Actualiza selectivamente los datos del usuario. Si algún campo del request es null o vacío, no se modifica.
-     * Comprueba la unicidad de email y DNI cuando se actualizan.
+     * Comprueba la unicidad de email y DNI cuando se actualizan. Invalida el principal cacheado del usuario en esta
+     * instancia al confirmarse la transacción; las demás instancias y servicios lo descartan al vencer su TTL.
      *
      * @param id      identificador del usuario a actualizar
      * @param request datos a actualizar
@@ -154,6 +146,7 @@ public class UserService {
     @Transactional
     public com.dmh.backend.dto.UserResponse updateUser(Long id, com.dmh.backend.dto.UserUpdateRequest request) {
         User user = getUserById(id);
+        String previousEmail = user.getEmail();
         // Actualizar nombre
         if (request.getFirstName() != null && !request.getFirstName().isBlank()) {
             user.setFirstName(request.getFirstName());
@@ -181,6 +174,8 @@ public class UserService {
         }
         // Persistir cambios
         User saved = userRepository.save(user);
+        // Descartar el principal cacheado bajo el email anterior para que no sobreviva al cambio
+        evictPrincipalAfterCommit(previousEmail);
         return new com.dmh.backend.dto.UserResponse(
                 saved.getId(),
                 saved.getFirstName(),
@@ -200,18 +195,15 @@ public class UserService {
      * @param id identificador del usuario/cuenta
      * @return DTO de la cuenta
      */
+    @Transactional(readOnly = true)
     public com.dmh.backend.dto.AccountResponse getAccount(Long id) {
-        User user = getUserById(id);
-        return new com.dmh.backend.dto.AccountResponse(
-                user.getId(),
-                user.getCvu(),
-                user.getAlias(),
-                user.getBalance()
-        );
+        return userRepository.findAccountById(id)
+                .orElseThrow(() -> new java.util.NoSuchElementException("User not found"));
     }
 
     /**
-     * Actualiza datos de la cuenta, actualmente sólo permite modificar el alias.
+     * Actualiza datos de la cuenta, actualmente sólo permite modificar el alias. Como el login toma el alias del
+     * principal cacheado, un cambio de alias lo invalida al confirmarse la transacción.
      *
      * @param id      identificador del usuario/cuenta
      * @param request datos de actualización
@@ -226,6 +218,7 @@ public class UserService {
                 throw new IllegalArgumentException("Alias is already in use");
             }
             user.setAlias(request.getAlias());
+            evictPrincipalAfterCommit(user.getEmail());
         }
         User saved = userRepository.save(user);
         return new com.dmh.backend.dto.AccountResponse(
@@ -236,6 +229,24 @@ public class UserService {
         );
     }
 
+    /**
+     * Descarta el principal cacheado bajo {@code email} una vez confirmada la transacción en curso (o de inmediato si
+     * no hay una). Si se descartara antes, una petición concurrente podría volver a cachear los datos anteriores
+     * mientras la transacción sigue abierta.
+     */
+    private void evictPrincipalAfterCommit(String email) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            customUserDetailsService.evict(email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                customUserDetailsService.evict(email);
+            }
+        });
+    }
+
     /**
      * Authenticate a user and generate a JWT.
      *
@@ -257,13 +268,14 @@ public class UserService {
     }
 
     /**
-     * Revoke a token by adding it to the blacklist.
+     * Revoke a token until it expires. Invalid or already expired tokens are ignored since they cannot be used anyway.
      *
      * @param token the JWT to revoke
      */
     public void logout(String token) {
         if (token != null && !token.isEmpty()) {
-            revokedTokens.add(token);
+            tokenProvider.parseClaims(token).ifPresent(claims ->
+                    revokedTokenStore.revoke(JwtTokenProvider.tokenId(claims, token), claims.getExpiration().toInstant()));
         }
     }
 
@@ -274,7 +286,9 @@ public class UserService {
      * @return true if revoked
      */
     public boolean isTokenRevoked(String token) {
-        return revokedTokens.contains(token);
+        return tokenProvider.parseClaims(token)
+                .map(claims -> revokedTokenStore.isRevoked(JwtTokenProvider.tokenId(claims, token)))
+                .orElse(false);
     }
 
     // Helper methods
@@ -0,0 +1,8 @@
+-- Índices para las consultas de actividad y transferencias (propiedad de transaction-service).
+
+-- findTop5ByUserOrderByDateDesc, findByIdAndUser y la paginación por keyset (user_id, transaction_date, id):
+-- el rango por usuario se lee ya ordenado, sin filesort.
+CREATE INDEX idx_transactions_user_date_id ON transactions (user_id, transaction_date DESC, id DESC);
+
+-- findTop5ByFromUserOrderByDateDesc (últimos destinatarios).
+CREATE INDEX idx_transferences_from_user_date ON transferences (from_user_id, date DESC, id DESC);
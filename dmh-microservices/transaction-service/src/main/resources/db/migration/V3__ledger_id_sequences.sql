@@ -0,0 +1,17 @@
+-- Tablas-secuencia para los ids de transactions y transferences (MySQL no tiene secuencias nativas, Hibernate las
+-- emula con una tabla de una fila). Hibernate reserva bloques de 50 ids (optimizador pooled): el valor guardado es
+-- el límite superior del próximo bloque, por eso se inicializa en MAX(id) + 50.
+
+CREATE TABLE transactions_seq (
+    next_val BIGINT NOT NULL
+) ENGINE = InnoDB;
+
+INSERT INTO transactions_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50 FROM transactions;
+
+CREATE TABLE transferences_seq (
+    next_val BIGINT NOT NULL
+) ENGINE = InnoDB;
+
+INSERT INTO transferences_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50 FROM transferences;
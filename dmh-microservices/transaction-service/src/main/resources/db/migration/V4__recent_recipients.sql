@@ -0,0 +1,25 @@
+-- Últimos destinatarios distintos de cada cuenta (MRU acotado), mantenido por cada transferencia. Reemplaza el
+-- recorrido de las últimas transferencias: la lectura es un rango sobre la clave primaria más un join por id.
+
+CREATE TABLE recent_recipients (
+    from_user_id     BIGINT      NOT NULL,
+    to_user_id       BIGINT      NOT NULL,
+    last_transfer_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (from_user_id, to_user_id),
+    INDEX idx_recent_recipients_from_last (from_user_id, last_transfer_at DESC),
+    CONSTRAINT fk_recent_recipients_from_user FOREIGN KEY (from_user_id) REFERENCES users (id),
+    CONSTRAINT fk_recent_recipients_to_user FOREIGN KEY (to_user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+-- Carga inicial desde el historial: los 5 destinatarios más recientes de cada cuenta
+INSERT INTO recent_recipients (from_user_id, to_user_id, last_transfer_at)
+SELECT from_user_id, to_user_id, last_transfer_at
+FROM (
+    SELECT from_user_id,
+           to_user_id,
+           MAX(date) AS last_transfer_at,
+           ROW_NUMBER() OVER (PARTITION BY from_user_id ORDER BY MAX(date) DESC) AS position
+    FROM transferences
+    GROUP BY from_user_id, to_user_id
+) ranked
+WHERE position <= 5;
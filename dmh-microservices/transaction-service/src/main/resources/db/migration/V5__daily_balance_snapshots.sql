@@ -0,0 +1,36 @@
+-- Resumen diario por cuenta: saldo al inicio del día y totales de ingresos/egresos. Se actualiza con cada movimiento
+-- y permite responder saldos históricos y totales por período sin recorrer la tabla de transacciones.
+
+CREATE TABLE daily_balance_snapshots (
+    user_id         BIGINT         NOT NULL,
+    snapshot_date   DATE           NOT NULL,
+    opening_balance DECIMAL(38, 2) NOT NULL,
+    total_in        DECIMAL(38, 2) NOT NULL,
+    total_out       DECIMAL(38, 2) NOT NULL,
+    tx_count        INT            NOT NULL,
+    PRIMARY KEY (user_id, snapshot_date),
+    INDEX idx_daily_balance_snapshots_date (snapshot_date),
+    CONSTRAINT fk_daily_balance_snapshots_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+-- La conciliación diaria lee los movimientos de un día de todas las cuentas.
+CREATE INDEX idx_transactions_date ON transactions (transaction_date);
+
+-- Carga inicial desde el historial. Los saldos arrancan en cero y sólo cambian por transacciones, así que el saldo al
+-- inicio de cada día es la suma de los movimientos de los días anteriores.
+INSERT INTO daily_balance_snapshots (user_id, snapshot_date, opening_balance, total_in, total_out, tx_count)
+SELECT user_id,
+       snapshot_date,
+       SUM(total_in - total_out) OVER (PARTITION BY user_id ORDER BY snapshot_date) - (total_in - total_out),
+       total_in,
+       total_out,
+       tx_count
+FROM (
+    SELECT user_id,
+           DATE(transaction_date)       AS snapshot_date,
+           SUM(GREATEST(amount, 0))     AS total_in,
+           SUM(GREATEST(-amount, 0))    AS total_out,
+           COUNT(*)                     AS tx_count
+    FROM transactions
+    GROUP BY user_id, DATE(transaction_date)
+) daily;
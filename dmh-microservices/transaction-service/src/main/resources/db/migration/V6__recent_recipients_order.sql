@@ -0,0 +1,5 @@
+-- Los destinatarios recientes se ordenan por fecha y, a igual fecha, por id de destinatario descendente. El índice
+-- anterior sólo tenía la fecha (la clave primaria agregada al final es ascendente) y esa lectura terminaba en filesort.
+ALTER TABLE recent_recipients
+    DROP INDEX idx_recent_recipients_from_last,
+    ADD INDEX idx_recent_recipients_from_last (from_user_id, last_transfer_at DESC, to_user_id DESC);
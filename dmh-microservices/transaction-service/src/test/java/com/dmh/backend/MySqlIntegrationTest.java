@@ -0,0 +1,25 @@
+package com.dmh.backend;
+
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base de los tests de integración que necesitan la base real: levanta un MySQL 8 descartable por clase de test y
+ * aplica las migraciones de Flyway al arrancar el contexto. Sin Docker disponible los tests se omiten.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = {
+        "eureka.client.enabled=false",
+        "jwt.secret=dGVzdC1zZWNyZXQtZm9yLXRyYW5zYWN0aW9uLXNlcnZpY2UtdGVzdHM="
+})
+public abstract class MySqlIntegrationTest {
+
+    // Mismo parámetro que la URL de producción: los lotes de INSERT viajan como una sola sentencia multi-fila
+    @Container
+    @ServiceConnection
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+            .withUrlParam("rewriteBatchedStatements", "true");
+}
@@ -0,0 +1,43 @@
+package com.dmh.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.support.ResourcePropertySource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Smoke check de la configuración de hilos virtuales de este servicio: {@code VIRTUAL_THREADS_ENABLED} activa el
+ * modo (apagado por defecto) sin cambiar el pool de Hikari. El efecto sobre Tomcat, {@code @Async} y
+ * {@code @Scheduled} y la comparación de carga están en card-service.
+ */
+class VirtualThreadsTest {
+
+    @Test
+    void disabledByDefault() throws IOException {
+        MockEnvironment environment = environment(Map.of());
+
+        assertThat(environment.getProperty("spring.threads.virtual.enabled", Boolean.class)).isFalse();
+        assertThat(environment.getProperty("spring.datasource.hikari.pool-name")).isEqualTo("transaction-primary");
+        assertThat(environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class)).isEqualTo(10);
+    }
+
+    @Test
+    void enabledFromTheEnvironmentWithTheSamePool() throws IOException {
+        MockEnvironment environment = environment(Map.of("VIRTUAL_THREADS_ENABLED", "true"));
+
+        assertThat(environment.getProperty("spring.threads.virtual.enabled", Boolean.class)).isTrue();
+        assertThat(environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class)).isEqualTo(10);
+    }
+
+    // sólo las variables indicadas: las del entorno real no afectan el resultado
+    private static MockEnvironment environment(Map<String, String> variables) throws IOException {
+        MockEnvironment environment = new MockEnvironment();
+        variables.forEach(environment::setProperty);
+        environment.getPropertySources().addLast(new ResourcePropertySource("classpath:application.properties"));
+        return environment;
+    }
+}
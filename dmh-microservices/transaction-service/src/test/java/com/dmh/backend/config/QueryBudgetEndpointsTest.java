@@ -0,0 +1,216 @@
+package com.dmh.backend.config;
+
+import com.dmh.backend.MySqlIntegrationTest;
+import com.dmh.backend.controller.ActivityController;
+import com.dmh.backend.controller.BalanceController;
+import com.dmh.backend.controller.DashboardController;
+import com.dmh.backend.controller.TransferenceController;
+import com.dmh.backend.exception.GlobalExceptionHandler;
+import com.dmh.backend.model.User;
+import com.dmh.backend.security.CustomUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Llama a cada endpoint anotado con {@link QueryBudget} contra MySQL con {@code fail-on-exceed} activo: una consulta
+ * de más (por ejemplo un N+1 por una asociación diferida) hace fallar la petición y por lo tanto el test.
+ * <p>
+ * Los controladores reales (con su seguridad por método) se montan en dos MockMvc independientes porque
+ * {@link ActivityController} y {@link TransferenceController} declaran el mismo {@code POST
+ * /accounts/{id}/transferences} y no pueden registrarse juntos.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "dmh.query-budget.fail-on-exceed=true")
+class QueryBudgetEndpointsTest extends MySqlIntegrationTest {
+
+    private static final long OWNER = 1L;
+    private static final long RECIPIENT = 2L;
+    private static final long UNKNOWN = 999L;
+    private static final long CARD = 10L;
+    private static final long TRANSACTION = 900001L;
+
+    /**
+     * Endpoints cubiertos por este test; {@link #everyBudgetedEndpointIsCovered()} falla si aparece uno nuevo.
+     */
+    private static final Set<String> COVERED = Set.of(
+            "DashboardController.getAccount", "DashboardController.getLastTransactions",
+            "DashboardController.updateAccount",
+            "ActivityController.getActivity", "ActivityController.getActivitySummary",
+            "ActivityController.exportActivity", "ActivityController.getTransaction",
+            "ActivityController.createIncome",
+            "BalanceController.getBalanceAt", "BalanceController.getPeriodSummary",
+            "TransferenceController.getLastRecipients", "TransferenceController.makeTransfer");
+
+    @Value("${dmh.query-budget.fail-on-exceed}")
+    private boolean failOnExceed;
+
+    @Autowired
+    private DashboardController dashboardController;
+
+    @Autowired
+    private ActivityController activityController;
+
+    @Autowired
+    private BalanceController balanceController;
+
+    @Autowired
+    private TransferenceController transferenceController;
+
+    @Autowired
+    private GlobalExceptionHandler exceptionHandler;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    // La cadena de filtros de seguridad lo requiere y sin contexto web no existe; acá las peticiones no pasan por ella
+    @MockBean(name = "mvcHandlerMappingIntrospector")
+    private HandlerMappingIntrospector mvcHandlerMappingIntrospector;
+
+    private MockMvc accounts;
+    private MockMvc transferences;
+
+    @BeforeEach
+    void setUp() {
+        assertThat(failOnExceed).isTrue();
+        accounts = mvc(dashboardController, activityController, balanceController);
+        transferences = mvc(transferenceController);
+
+        Stream.of("recent_recipients", "daily_balance_snapshots", "transactions", "transferences", "cards", "users")
+                .forEach(table -> jdbc.update("DELETE FROM " + table));
+        insertUser(OWNER, "owner", 1000);
+        insertUser(RECIPIENT, "recipient", 0);
+        jdbc.update("INSERT INTO cards (id, user_id, card_number, holder_name, expiration_date) VALUES (?, ?, ?, ?, ?)",
+                CARD, OWNER, "4111111111111111", "Owner Test", "12/2030");
+        jdbc.update("INSERT INTO transactions (id, user_id, amount, type, transaction_date, description) "
+                + "VALUES (?, ?, 1000, 'INCOME', NOW(6), 'Saldo inicial')", TRANSACTION, OWNER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void dashboardEndpointsStayWithinBudget() throws Exception {
+        authenticate(OWNER);
+        assertWithinBudget(accounts, get("/accounts/{id}", OWNER), status().isOk());
+        assertWithinBudget(accounts, get("/accounts/{id}/transactions", OWNER), status().isOk());
+        assertWithinBudget(accounts, patch("/accounts/{id}", OWNER)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"alias\":\"nuevo.alias.owner\"}"), status().isOk());
+    }
+
+    @Test
+    void activityEndpointsStayWithinBudget() throws Exception {
+        authenticate(OWNER);
+        assertWithinBudget(accounts, get("/accounts/{id}/activity", OWNER), status().isOk());
+        assertWithinBudget(accounts, get("/accounts/{id}/activity/summary", OWNER), status().isOk());
+        assertWithinBudget(accounts, get("/accounts/{id}/activity/export", OWNER), status().isOk());
+        assertWithinBudget(accounts, get("/accounts/{id}/activity/{tx}", OWNER, TRANSACTION), status().isOk());
+        assertWithinBudget(accounts, post("/accounts/{id}/transferences", OWNER)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"cardId\":" + CARD + ",\"amount\":50}"),
+                status().isCreated());
+    }
+
+    @Test
+    void balanceEndpointsStayWithinBudget() throws Exception {
+        authenticate(OWNER);
+        LocalDate today = LocalDate.now();
+        assertWithinBudget(accounts, get("/accounts/{id}/balance", OWNER).param("date", today.toString()),
+                status().isOk());
+        assertWithinBudget(accounts, get("/accounts/{id}/balance/period", OWNER)
+                .param("from", today.minusDays(7).toString()).param("to", today.toString()), status().isOk());
+    }
+
+    @Test
+    void transferenceEndpointsStayWithinBudget() throws Exception {
+        authenticate(OWNER);
+        assertWithinBudget(transferences, post("/accounts/{id}/transferences", OWNER)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"toAccountId\":" + RECIPIENT + ",\"amount\":10}"),
+                status().isOk());
+        assertWithinBudget(transferences, get("/accounts/{id}/transferences", OWNER), status().isOk());
+    }
+
+    @Test
+    void notFoundPathsStayWithinBudget() throws Exception {
+        // los presupuestos incluyen las consultas que sólo se hacen para responder 404
+        authenticate(UNKNOWN);
+        assertWithinBudget(accounts, get("/accounts/{id}", UNKNOWN), status().isNotFound());
+        assertWithinBudget(accounts, get("/accounts/{id}/transactions", UNKNOWN), status().isNotFound());
+        assertWithinBudget(accounts, get("/accounts/{id}/activity", UNKNOWN), status().isNotFound());
+        assertWithinBudget(accounts, get("/accounts/{id}/activity/summary", UNKNOWN), status().isNotFound());
+        assertWithinBudget(accounts, get("/accounts/{id}/activity/export", UNKNOWN), status().isNotFound());
+        assertWithinBudget(accounts, get("/accounts/{id}/balance", UNKNOWN)
+                .param("date", LocalDate.now().toString()), status().isNotFound());
+        assertWithinBudget(transferences, get("/accounts/{id}/transferences", UNKNOWN), status().isNotFound());
+    }
+
+    @Test
+    void everyBudgetedEndpointIsCovered() {
+        Set<String> budgeted = Stream.of(DashboardController.class, ActivityController.class,
+                        BalanceController.class, TransferenceController.class)
+                .flatMap(controller -> Arrays.stream(controller.getDeclaredMethods()))
+                .filter(method -> method.isAnnotationPresent(QueryBudget.class))
+                .map(QueryBudgetEndpointsTest::name)
+                .collect(Collectors.toSet());
+        assertThat(budgeted).isEqualTo(COVERED);
+    }
+
+    private MockMvc mvc(Object... controllers) {
+        return MockMvcBuilders.standaloneSetup(controllers)
+                .setControllerAdvice(exceptionHandler)
+                .addInterceptors(new QueryBudgetInterceptor(failOnExceed))
+                .build();
+    }
+
+    // Con fail-on-exceed la sentencia que supera el presupuesto lanza una excepción y la respuesta deja de ser la
+    // esperada (el manejador global la convierte en un 500)
+    private static void assertWithinBudget(MockMvc mvc, RequestBuilder request, ResultMatcher expected) throws Exception {
+        mvc.perform(request).andExpect(expected);
+    }
+
+    private void insertUser(long id, String name, int balance) {
+        jdbc.update("INSERT INTO users (id, first_name, last_name, dni, phone_number, email, password, cvu, alias, balance) "
+                        + "VALUES (?, ?, 'Test', ?, '1100000000', ?, 'x', ?, ?, ?)",
+                id, name, "dni-" + id, name + "@example.com", String.format("%022d", id), name + ".alias.test", balance);
+    }
+
+    private static void authenticate(long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setEmail("user" + userId + "@example.com");
+        CustomUserDetails principal = new CustomUserDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static String name(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+}
@@ -0,0 +1,94 @@
+package com.dmh.backend.repository;
+
+import com.dmh.backend.MySqlIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class DailyBalanceSnapshotRepositoryTest extends MySqlIntegrationTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 1);
+    private static final LocalDateTime START = DAY.atStartOfDay();
+    private static final LocalDateTime END = DAY.plusDays(1).atStartOfDay();
+
+    @Autowired
+    private DailyBalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private long nextTransactionId = 900000;
+
+    @BeforeEach
+    void setUp() {
+        LongStream.rangeClosed(1, 3).forEach(id -> jdbc.update(
+                "INSERT INTO users (id, first_name, last_name, dni, phone_number, email, password, cvu, alias, balance) "
+                        + "VALUES (?, 'User', 'Test', ?, '1100000000', ?, 'x', ?, ?, 0)",
+                id, "dni-" + id, "user" + id + "@example.com", String.format("%022d", id), "alias.user." + id));
+    }
+
+    @Test
+    void recordMovementCreatesTheDayAndThenAccumulates() {
+        applyMovement(1L, new BigDecimal("100.00"));
+        applyMovement(1L, new BigDecimal("-30.00"));
+
+        Map<String, Object> day = snapshot(1L);
+        assertThat((BigDecimal) day.get("opening_balance")).isEqualByComparingTo("0");
+        assertThat((BigDecimal) day.get("total_in")).isEqualByComparingTo("100");
+        assertThat((BigDecimal) day.get("total_out")).isEqualByComparingTo("30");
+        assertThat(((Number) day.get("tx_count")).intValue()).isEqualTo(2);
+        assertThat(snapshotRepository.countMismatches(DAY, START, END)).isZero();
+    }
+
+    @Test
+    void reconcileReportsAndRepairsEverySide() {
+        // 1: totales de más en el resumen; 2: movimientos sin resumen; 3: resumen sin movimientos
+        applyMovement(1L, new BigDecimal("50.00"));
+        jdbc.update("UPDATE daily_balance_snapshots SET total_in = total_in + 10, tx_count = tx_count + 1 "
+                + "WHERE user_id = 1");
+        insertTransaction(2L, new BigDecimal("20.00"));
+        jdbc.update("INSERT INTO daily_balance_snapshots "
+                + "(user_id, snapshot_date, opening_balance, total_in, total_out, tx_count) VALUES (3, ?, 0, 5, 0, 1)", DAY);
+
+        assertThat(snapshotRepository.countMismatches(DAY, START, END)).isEqualTo(3);
+
+        snapshotRepository.repairDay(DAY, START, END);
+        snapshotRepository.deleteDayWithoutMovements(DAY, START, END);
+
+        assertThat(snapshotRepository.countMismatches(DAY, START, END)).isZero();
+        assertThat((BigDecimal) snapshot(1L).get("total_in")).isEqualByComparingTo("50");
+        assertThat((BigDecimal) snapshot(2L).get("total_in")).isEqualByComparingTo("20");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM daily_balance_snapshots WHERE user_id = 3",
+                Integer.class)).isZero();
+    }
+
+    // Igual que el servicio: el saldo se actualiza antes de registrar el movimiento en el resumen
+    private void applyMovement(long userId, BigDecimal amount) {
+        jdbc.update("UPDATE users SET balance = balance + ? WHERE id = ?", amount, userId);
+        insertTransaction(userId, amount);
+        snapshotRepository.recordMovement(userId, DAY, amount);
+    }
+
+    private void insertTransaction(long userId, BigDecimal amount) {
+        jdbc.update("INSERT INTO transactions (id, user_id, amount, type, transaction_date, description) "
+                + "VALUES (?, ?, ?, 'TEST', ?, NULL)", nextTransactionId++, userId, amount, START.plusHours(10));
+    }
+
+    private Map<String, Object> snapshot(long userId) {
+        return jdbc.queryForMap("SELECT * FROM daily_balance_snapshots WHERE user_id = ? AND snapshot_date = ?",
+                userId, DAY);
+    }
+}
@@ -0,0 +1,99 @@
+package com.dmh.backend.repository;
+
+import com.dmh.backend.MySqlIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica con EXPLAIN que las lecturas frecuentes usan los índices de las migraciones y devuelven las filas ya
+ * ordenadas (sin filesort). Las consultas reproducen las que generan los repositorios.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class IndexUsageTest extends MySqlIntegrationTest {
+
+    private static final int USERS = 20;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= USERS; id++) {
+            jdbc.update("INSERT INTO users (id, first_name, last_name, dni, phone_number, email, password, cvu, alias, "
+                            + "balance) VALUES (?, 'User', 'Test', ?, '1100000000', ?, 'x', ?, ?, 0)",
+                    id, "dni-" + id, "user" + id + "@example.com", String.format("%022d", id), "alias.user." + id);
+        }
+        List<Object[]> transactions = new ArrayList<>();
+        List<Object[]> recipients = new ArrayList<>();
+        for (int i = 0; i < 4000; i++) {
+            long user = i % USERS + 1;
+            transactions.add(new Object[]{900000 + i, user, START.plusHours(i)});
+        }
+        for (long from = 1; from <= USERS; from++) {
+            for (long to = 1; to <= USERS; to++) {
+                if (from != to) {
+                    recipients.add(new Object[]{from, to, START.plusMinutes(from * to)});
+                }
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO transactions (id, user_id, amount, type, transaction_date, description) "
+                + "VALUES (?, ?, 10, 'INCOME', ?, NULL)", transactions);
+        jdbc.batchUpdate("INSERT INTO recent_recipients (from_user_id, to_user_id, last_transfer_at) VALUES (?, ?, ?)",
+                recipients);
+    }
+
+    @Test
+    void lastTransactionsReadTheUserRangeInOrder() {
+        // findTop5ByUserOrderByDateDesc
+        assertIndexedWithoutFilesort("SELECT * FROM transactions WHERE user_id = 3 "
+                + "ORDER BY transaction_date DESC LIMIT 5", "idx_transactions_user_date_id");
+    }
+
+    @Test
+    void activityPageSeeksByKeyset() {
+        // getActivity: página siguiente a partir del cursor (fecha, id)
+        assertIndexedWithoutFilesort("SELECT * FROM transactions WHERE user_id = 3 AND (transaction_date < "
+                + "'2024-03-01 00:00:00' OR (transaction_date = '2024-03-01 00:00:00' AND id < 901000)) "
+                + "ORDER BY transaction_date DESC, id DESC LIMIT 21", "idx_transactions_user_date_id");
+    }
+
+    @Test
+    void reconciliationReadsOneDay() {
+        // DailyBalanceSnapshotRepository.LEDGER_DAY
+        assertThat(explain("SELECT t.user_id, COUNT(*) FROM transactions t WHERE t.transaction_date >= "
+                + "'2024-02-01 00:00:00' AND t.transaction_date < '2024-02-02 00:00:00' GROUP BY t.user_id"))
+                .containsEntry("table", "t")
+                .containsEntry("key", "idx_transactions_date");
+    }
+
+    @Test
+    void recentRecipientsReadTheSenderRangeInOrder() {
+        // TransferenceRepository.findRecentRecipients
+        assertIndexedWithoutFilesort("SELECT to_user_id FROM recent_recipients WHERE from_user_id = 3 "
+                + "ORDER BY last_transfer_at DESC, to_user_id DESC LIMIT 5", "idx_recent_recipients_from_last");
+    }
+
+    private void assertIndexedWithoutFilesort(String sql, String index) {
+        Map<String, Object> plan = explain(sql);
+        assertThat(plan).containsEntry("key", index);
+        assertThat(String.valueOf(plan.get("Extra"))).doesNotContain("filesort");
+    }
+
+    private Map<String, Object> explain(String sql) {
+        List<Map<String, Object>> rows = jdbc.queryForList("EXPLAIN " + sql);
+        return rows.get(0);
+    }
+}
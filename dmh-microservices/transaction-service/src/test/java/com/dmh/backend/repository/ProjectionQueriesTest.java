@@ -0,0 +1,114 @@
+package com.dmh.backend.repository;
+
+import com.dmh.backend.MySqlIntegrationTest;
+import com.dmh.backend.dto.AccountResponse;
+import com.dmh.backend.dto.CardResponse;
+import com.dmh.backend.dto.TransactionResponse;
+import com.dmh.backend.dto.UserResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ejecuta cada consulta con proyección a DTO ({@code select new ...Response(...)}) contra el esquema de Flyway: los
+ * constructores tienen que coincidir con las columnas y los filtros por usuario no deben dejar pasar filas ajenas.
+ * <p>
+ * Las consultas de {@code CardRepository} y {@code UserRepository} de card-, user- y account-service son las mismas,
+ * sobre la misma entidad.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ProjectionQueriesTest extends MySqlIntegrationTest {
+
+    private static final long OWNER = 1L;
+    private static final long OTHER = 2L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        for (long id : new long[]{OWNER, OTHER}) {
+            jdbc.update("INSERT INTO users (id, first_name, last_name, dni, phone_number, email, password, cvu, alias, "
+                            + "balance) VALUES (?, 'Ana', 'Gómez', ?, '1100000000', ?, 'secret-hash', ?, ?, 150.25)",
+                    id, "dni-" + id, "user" + id + "@example.com", String.format("%022d", id), "alias.user." + id);
+        }
+        // 10 y 11 comparten fecha: el desempate es por id
+        transaction(10, OWNER, "DEPOSIT", NOW.minusDays(3));
+        transaction(11, OWNER, "TRANSFER", NOW.minusDays(3));
+        transaction(12, OWNER, "DEPOSIT", NOW.minusDays(1));
+        transaction(13, OWNER, "DEPOSIT", NOW.minusDays(5));
+        transaction(14, OTHER, "DEPOSIT", NOW);
+        card(20, OTHER, "4000000000000002");
+        card(22, OWNER, "4000000000000022");
+        card(21, OWNER, "4000000000000021");
+    }
+
+    @Test
+    void latestTransactionsAreTheOwnersNewestFirst() {
+        List<TransactionResponse> latest = transactionRepository.findLatestByUserId(OWNER, PageRequest.of(0, 3));
+
+        assertThat(latest).extracting(TransactionResponse::getId).containsExactly(12L, 11L, 10L);
+        assertThat(latest.get(1)).isEqualTo(new TransactionResponse(11L, new BigDecimal("11.50"), "TRANSFER",
+                NOW.minusDays(3), "movimiento 11"));
+        assertThat(transactionRepository.findLatestByUserId(99L, PageRequest.of(0, 5))).isEmpty();
+    }
+
+    @Test
+    void transactionByIdIsOnlyFoundForItsOwner() {
+        assertThat(transactionRepository.findResponseByIdAndUserId(12L, OWNER)).contains(
+                new TransactionResponse(12L, new BigDecimal("12.50"), "DEPOSIT", NOW.minusDays(1), "movimiento 12"));
+        assertThat(transactionRepository.findResponseByIdAndUserId(14L, OWNER)).isEmpty();
+        assertThat(transactionRepository.findResponseByIdAndUserId(99L, OWNER)).isEmpty();
+    }
+
+    @Test
+    void cardsAreTheOwnersInIdOrder() {
+        assertThat(cardRepository.findResponsesByUserId(OWNER)).containsExactly(
+                new CardResponse(21L, "4000000000000021", "Ana Gómez", "12/2030"),
+                new CardResponse(22L, "4000000000000022", "Ana Gómez", "12/2030"));
+        assertThat(cardRepository.findResponsesByUserId(99L)).isEmpty();
+    }
+
+    @Test
+    void accountAndProfileAreBuiltFromTheUserRow() {
+        assertThat(userRepository.findAccountById(OWNER)).contains(
+                new AccountResponse(OWNER, "0000000000000000000001", "alias.user.1", new BigDecimal("150.25")));
+        // el perfil no incluye la contraseña
+        assertThat(userRepository.findProfileById(OWNER)).contains(new UserResponse(OWNER, "Ana", "Gómez", "dni-1",
+                "1100000000", "user1@example.com", "0000000000000000000001", "alias.user.1",
+                new BigDecimal("150.25")));
+        assertThat(userRepository.findAccountById(99L)).isEmpty();
+        assertThat(userRepository.findProfileById(99L)).isEmpty();
+    }
+
+    private void transaction(long id, long userId, String type, LocalDateTime date) {
+        jdbc.update("INSERT INTO transactions (id, user_id, amount, type, transaction_date, description) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", id, userId, new BigDecimal(id + ".50"), type, date, "movimiento " + id);
+    }
+
+    private void card(long id, long userId, String number) {
+        jdbc.update("INSERT INTO cards (id, user_id, card_number, holder_name, expiration_date) "
+                + "VALUES (?, ?, ?, 'Ana Gómez', '12/2030')", id, userId, number);
+    }
+}
@@ -0,0 +1,79 @@
+package com.dmh.backend.repository;
+
+import com.dmh.backend.MySqlIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TransferenceRepositoryTest extends MySqlIntegrationTest {
+
+    private static final long SENDER = 1L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Autowired
+    private TransferenceRepository transferenceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        LongStream.rangeClosed(1, 8).forEach(id -> jdbc.update(
+                "INSERT INTO users (id, first_name, last_name, dni, phone_number, email, password, cvu, alias, balance) "
+                        + "VALUES (?, 'User', 'Test', ?, '1100000000', ?, 'x', ?, ?, 0)",
+                id, "dni-" + id, "user" + id + "@example.com", String.format("%022d", id), "alias.user." + id));
+    }
+
+    @Test
+    void upsertKeepsTheLatestTransferDate() {
+        transferenceRepository.upsertRecentRecipient(SENDER, 2L, NOW);
+        transferenceRepository.upsertRecentRecipient(SENDER, 2L, NOW.minusDays(1));
+        assertThat(lastTransferAt(2L)).isEqualTo(NOW);
+
+        transferenceRepository.upsertRecentRecipient(SENDER, 2L, NOW.plusMinutes(5));
+        assertThat(lastTransferAt(2L)).isEqualTo(NOW.plusMinutes(5));
+    }
+
+    @Test
+    void pruneKeepsExactlyKeepRowsWhenDatesTie() {
+        // siete destinatarios con la misma fecha: el desempate por id decide cuáles quedan
+        LongStream.rangeClosed(2, 8).forEach(to -> transferenceRepository.upsertRecentRecipient(SENDER, to, NOW));
+
+        transferenceRepository.pruneRecentRecipients(SENDER, 5);
+
+        assertThat(jdbc.queryForList("SELECT to_user_id FROM recent_recipients WHERE from_user_id = ? "
+                + "ORDER BY to_user_id DESC", Long.class, SENDER)).containsExactly(8L, 7L, 6L, 5L, 4L);
+        assertThat(transferenceRepository.findRecentRecipients(SENDER, 5))
+                .extracting(TransferenceRepository.RecipientView::getId)
+                .containsExactly(8L, 7L, 6L, 5L, 4L);
+    }
+
+    @Test
+    void pruneDropsOnlyTheOldestRecipients() {
+        LongStream.rangeClosed(2, 8).forEach(to ->
+                transferenceRepository.upsertRecentRecipient(SENDER, to, NOW.plusMinutes(to)));
+
+        transferenceRepository.pruneRecentRecipients(SENDER, 5);
+
+        List<Long> kept = transferenceRepository.findRecentRecipients(SENDER, 10).stream()
+                .map(TransferenceRepository.RecipientView::getId)
+                .toList();
+        assertThat(kept).containsExactly(8L, 7L, 6L, 5L, 4L);
+    }
+
+    private LocalDateTime lastTransferAt(long toUserId) {
+        return jdbc.queryForObject("SELECT last_transfer_at FROM recent_recipients WHERE from_user_id = ? "
+                + "AND to_user_id = ?", LocalDateTime.class, SENDER, toUserId);
+    }
+}
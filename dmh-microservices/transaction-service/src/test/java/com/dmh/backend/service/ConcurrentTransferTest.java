@@ -0,0 +1,126 @@
+package com.dmh.backend.service;
+
+import com.dmh.backend.MySqlIntegrationTest;
+import com.dmh.backend.dto.TransferRequest;
+import com.dmh.backend.exception.InsufficientFundsException;
+import com.dmh.backend.repository.DailyBalanceSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Transferencias concurrentes entre pocas cuentas, en ambos sentidos: ningún saldo pierde actualizaciones ni queda
+ * negativo, el dinero total se conserva, cada saldo coincide con sus transacciones y el orden de bloqueo evita
+ * deadlocks (cualquier error distinto de fondos insuficientes hace fallar el test).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class ConcurrentTransferTest extends MySqlIntegrationTest {
+
+    private static final int ACCOUNTS = 4;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_THREAD = 50;
+
+    @Autowired
+    private TransferenceService transferenceService;
+
+    @Autowired
+    private DailyBalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    // La cadena de filtros de seguridad lo requiere y sin contexto web no existe; acá no se atienden peticiones
+    @MockBean(name = "mvcHandlerMappingIntrospector")
+    private HandlerMappingIntrospector mvcHandlerMappingIntrospector;
+
+    @BeforeEach
+    void setUp() {
+        List.of("recent_recipients", "daily_balance_snapshots", "transactions", "transferences", "cards", "users")
+                .forEach(table -> jdbc.update("DELETE FROM " + table));
+        LongStream.rangeClosed(1, ACCOUNTS).forEach(id -> jdbc.update(
+                "INSERT INTO users (id, first_name, last_name, dni, phone_number, email, password, cvu, alias, balance) "
+                        + "VALUES (?, 'User', 'Test', ?, '1100000000', ?, 'x', ?, ?, ?)",
+                id, "dni-" + id, "user" + id + "@example.com", String.format("%022d", id), "alias.user." + id,
+                INITIAL_BALANCE));
+    }
+
+    @Test
+    void concurrentTransfersConserveMoneyAndLoseNoUpdates() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    long from = random.nextLong(1, ACCOUNTS + 1);
+                    long to = (from - 1 + random.nextLong(1, ACCOUNTS)) % ACCOUNTS + 1;
+                    TransferRequest request = new TransferRequest();
+                    request.setToAccountId(to);
+                    // montos grandes para que también haya transferencias rechazadas por fondos insuficientes
+                    request.setAmount(BigDecimal.valueOf(random.nextInt(1, 400)));
+                    try {
+                        transferenceService.transfer(from, request);
+                        completed.incrementAndGet();
+                    } catch (InsufficientFundsException e) {
+                        rejected.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failures.add(e);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+
+        assertThat(failures).isEmpty();
+        assertThat(completed.get() + rejected.get()).isEqualTo(THREADS * TRANSFERS_PER_THREAD);
+        assertThat(completed.get()).isPositive();
+
+        assertThat(jdbc.queryForObject("SELECT SUM(balance) FROM users", BigDecimal.class))
+                .isEqualByComparingTo(INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)));
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM users WHERE balance < 0", Integer.class)).isZero();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM transferences", Integer.class))
+                .isEqualTo(completed.get());
+        // cada saldo es el inicial más la suma de sus movimientos: ninguna actualización se perdió
+        for (Map<String, Object> row : jdbc.queryForList("SELECT u.id, u.balance, COALESCE(SUM(t.amount), 0) AS moved "
+                + "FROM users u LEFT JOIN transactions t ON t.user_id = u.id GROUP BY u.id, u.balance")) {
+            assertThat((BigDecimal) row.get("balance")).as("balance of account %s", row.get("id"))
+                    .isEqualByComparingTo(INITIAL_BALANCE.add((BigDecimal) row.get("moved")));
+        }
+        LocalDate today = LocalDate.now();
+        assertThat(snapshotRepository.countMismatches(today, today.atStartOfDay(), today.plusDays(1).atStartOfDay()))
+                .isZero();
+    }
+}
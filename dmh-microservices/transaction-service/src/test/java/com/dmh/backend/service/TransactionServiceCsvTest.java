@@ -0,0 +1,32 @@
+package com.dmh.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionServiceCsvTest {
+
+    @Test
+    void plainValuesAreWrittenAsIs() {
+        assertThat(TransactionService.csvField("Transferencia a juan")).isEqualTo("Transferencia a juan");
+        assertThat(TransactionService.csvField(null)).isEmpty();
+        assertThat(TransactionService.csvField("")).isEmpty();
+    }
+
+    @Test
+    void separatorsQuotesAndLineBreaksAreQuoted() {
+        assertThat(TransactionService.csvField("pago, alquiler")).isEqualTo("\"pago, alquiler\"");
+        assertThat(TransactionService.csvField("dijo \"hola\"")).isEqualTo("\"dijo \"\"hola\"\"\"");
+        assertThat(TransactionService.csvField("linea\nnueva")).isEqualTo("\"linea\nnueva\"");
+    }
+
+    @Test
+    void formulaPrefixesAreNeutralized() {
+        assertThat(TransactionService.csvField("=HYPERLINK(\"http://x\")")).isEqualTo("\"'=HYPERLINK(\"\"http://x\"\")\"");
+        assertThat(TransactionService.csvField("+1+1")).isEqualTo("'+1+1");
+        assertThat(TransactionService.csvField("-2+3")).isEqualTo("'-2+3");
+        assertThat(TransactionService.csvField("@SUM(A1:A2)")).isEqualTo("'@SUM(A1:A2)");
+        assertThat(TransactionService.csvField("\tcmd")).isEqualTo("'\tcmd");
+        assertThat(TransactionService.csvField("=1,2")).isEqualTo("\"'=1,2\"");
+    }
+}
@@ -0,0 +1,80 @@
+package com.dmh.backend.service;
+
+import com.dmh.backend.MySqlIntegrationTest;
+import com.dmh.backend.dto.TransferRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Los dos movimientos que registra una transferencia se insertan en un único lote: con ids de secuencia (sin
+ * IDENTITY) Hibernate puede agruparlos y {@code rewriteBatchedStatements} los envía como un solo INSERT multi-fila.
+ * El test es transaccional para que la transferencia use la misma conexión que lee los contadores de la sesión.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Transactional
+class TransferBatchingTest extends MySqlIntegrationTest {
+
+    @Autowired
+    private TransferenceService transferenceService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    // La cadena de filtros de seguridad lo requiere y sin contexto web no existe; acá no se atienden peticiones
+    @MockBean(name = "mvcHandlerMappingIntrospector")
+    private HandlerMappingIntrospector mvcHandlerMappingIntrospector;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 2; id++) {
+            jdbc.update("INSERT INTO users (id, first_name, last_name, dni, phone_number, email, password, cvu, alias, "
+                            + "balance) VALUES (?, 'User', 'Test', ?, '1100000000', ?, 'x', ?, ?, 1000)",
+                    id, "dni-" + id, "user" + id + "@example.com", String.format("%022d", id), "alias.user." + id);
+        }
+    }
+
+    @Test
+    void ledgerRowsOfATransferAreInsertedInOneStatement() {
+        long before = insertStatements();
+        transferenceService.transfer(1L, request(2L, "25.00"));
+        long issued = insertStatements() - before;
+
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM transactions", Integer.class)).isEqualTo(2);
+        // la transferencia, los dos movimientos (un lote) y el destinatario reciente; los resúmenes diarios son
+        // INSERT ... SELECT y se cuentan aparte (Com_insert_select)
+        assertThat(issued).isEqualTo(3);
+    }
+
+    @Test
+    void ledgerIdsComeFromTheSequenceBlock() {
+        transferenceService.transfer(1L, request(2L, "10.00"));
+        transferenceService.transfer(2L, request(1L, "5.00"));
+
+        List<Long> ids = jdbc.queryForList("SELECT id FROM transactions ORDER BY id", Long.class);
+        // bloques de 50 ids reservados de a uno por vez: no hace falta ir a la base por cada movimiento
+        assertThat(ids).hasSize(4);
+        assertThat(ids.get(3) - ids.get(0)).isEqualTo(3);
+    }
+
+    private long insertStatements() {
+        return jdbc.queryForObject("SHOW SESSION STATUS LIKE 'Com_insert'", (rs, row) -> rs.getLong("Value"));
+    }
+
+    private static TransferRequest request(long to, String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setToAccountId(to);
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+}
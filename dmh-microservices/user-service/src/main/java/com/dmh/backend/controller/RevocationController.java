@@ -0,0 +1,40 @@
+package com.dmh.backend.controller;
+
+import com.dmh.backend.security.RevokedTokenStore;
+import io.swagger.v3.oas.annotations.Hidden;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Internal endpoints used by the api-gateway to keep its revoked-token filter up to date. They are not routed by the
+ * gateway, require the shared secret checked in {@code SecurityConfig} and only expose token ids (jti), never tokens
+ * or user data.
+ */
+@Hidden
+@RestController
+@RequestMapping("/internal/revocations")
+@RequiredArgsConstructor
+public class RevocationController {
+
+    private final RevokedTokenStore revokedTokenStore;
+
+    /**
+     * Ids of every revoked token that has not expired yet. The gateway rebuilds its Bloom filter from this list.
+     */
+    @GetMapping
+    public ResponseEntity<Collection<String>> activeRevocations() {
+        return ResponseEntity.ok(revokedTokenStore.activeTokenIds());
+    }
+
+    /**
+     * Exact check for a single token id, used by the gateway when its Bloom filter reports a possible hit.
+     */
+    @GetMapping("/{tokenId}")
+    public ResponseEntity<Map<String, Boolean>> isRevoked(@PathVariable String tokenId) {
+        return ResponseEntity.ok(Map.of("revoked", revokedTokenStore.isRevoked(tokenId)));
+    }
+}
@@ -1,7 +1,11 @@
 package com.dmh.backend.repository;
 
+import com.dmh.backend.dto.AccountResponse;
+import com.dmh.backend.dto.UserResponse;
 import com.dmh.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -20,4 +24,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByCvu(String cvu);
 
     boolean existsByAlias(String alias);
+
+    /**
+     * Datos de la cuenta (CVU, alias y saldo) construidos directamente como DTO, sin cargar la entidad.
+     *
+     * @param id identificador del usuario
+     * @return la cuenta si el usuario existe
+     */
+    @Query("select new com.dmh.backend.dto.AccountResponse(u.id, u.cvu, u.alias, u.balance) from User u where u.id = :id")
+    Optional<AccountResponse> findAccountById(@Param("id") Long id);
+
+    /**
+     * Perfil del usuario (sin contraseña) construido directamente como DTO, sin cargar la entidad.
+     *
+     * @param id identificador del usuario
+     * @return el perfil si el usuario existe
+     */
+    @Query("select new com.dmh.backend.dto.UserResponse(u.id, u.firstName, u.lastName, u.dni, u.phoneNumber, "
+            + "u.email, u.cvu, u.alias, u.balance) from User u where u.id = :id")
+    Optional<UserResponse> findProfileById(@Param("id") Long id);
 }
@@ -0,0 +1,55 @@
+package com.dmh.backend.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link RevokedTokenStore} kept in a {@link ConcurrentHashMap} of token id to expiration (epoch millis). Reads are
+ * lock-free and expired entries are purged periodically, so the map only holds tokens that are still valid.
+ * Revocations are only visible to this instance.
+ */
+@Component
+@ConditionalOnProperty(name = "dmh.security.revocation.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRevokedTokenStore implements RevokedTokenStore {
+
+    private final ConcurrentMap<String, Long> expirationByTokenId = new ConcurrentHashMap<>();
+
+    @Override
+    public void revoke(String tokenId, Instant expiresAt) {
+        long expiresAtMillis = expiresAt.toEpochMilli();
+        if (expiresAtMillis > System.currentTimeMillis()) {
+            expirationByTokenId.put(tokenId, expiresAtMillis);
+        }
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        Long expiresAtMillis = expirationByTokenId.get(tokenId);
+        return expiresAtMillis != null && expiresAtMillis > System.currentTimeMillis();
+    }
+
+    @Override
+    public Collection<String> activeTokenIds() {
+        long now = System.currentTimeMillis();
+        return expirationByTokenId.entrySet().stream()
+                .filter(entry -> entry.getValue() > now)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Drop the entries of tokens that have already expired.
+     */
+    @Scheduled(fixedDelayString = "${dmh.security.revocation.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        expirationByTokenId.values().removeIf(expiresAtMillis -> expiresAtMillis <= now);
+    }
+}
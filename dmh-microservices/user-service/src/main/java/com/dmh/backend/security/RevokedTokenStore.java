@@ -0,0 +1,38 @@
+package com.dmh.backend.security;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Store of revoked (logged out) tokens, keyed by token id (jti, see {@link JwtTokenProvider#tokenId}).
+ * <p>
+ * Entries only need to live until the token expires: after that the token is rejected anyway, so implementations
+ * drop them once {@code expiresAt} has passed. The implementation is selected with
+ * {@code dmh.security.revocation.store}: {@code memory} (default, per instance) or {@code jdbc} (shared table, so a
+ * logout is seen by every instance and service).
+ */
+public interface RevokedTokenStore {
+
+    /**
+     * Mark a token as revoked until it expires.
+     *
+     * @param tokenId   the token id
+     * @param expiresAt the token expiration
+     */
+    void revoke(String tokenId, Instant expiresAt);
+
+    /**
+     * Check whether a token has been revoked. Called on every authenticated request, so it must not block.
+     *
+     * @param tokenId the token id
+     * @return true if the token was revoked and has not expired yet
+     */
+    boolean isRevoked(String tokenId);
+
+    /**
+     * Ids of the revoked tokens that have not expired yet. Used by the gateway to rebuild its revocation filter.
+     *
+     * @return snapshot of the active revoked token ids
+     */
+    Collection<String> activeTokenIds();
+}
@@ -1,9 +1,12 @@
 package com.dmh.backend.security;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -11,8 +14,12 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
 /**
  * Spring Security configuration for JWT-based authentication.
  */
@@ -22,11 +29,18 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    /**
+     * Header carrying the secret shared with the api-gateway ({@code dmh.internal.token}).
+     */
+    public static final String INTERNAL_TOKEN_HEADER = "X-Internal-Token";
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final CustomUserDetailsService customUserDetailsService;
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   @Value("${dmh.internal.token:}") String internalToken)
+            throws Exception {
         http
                 .cors().and()
                 .csrf().disable()
@@ -36,8 +50,10 @@ public class SecurityConfig {
                                 "/auth/login",
                                 "/v3/api-docs/**",
                                 "/swagger-ui/**",
-                                "/swagger-ui.html"
+                                "/swagger-ui.html",
+                                "/actuator/health"
                         ).permitAll()
+                        .requestMatchers("/internal/revocations/**").access(internalCaller(internalToken))
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -48,6 +64,20 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Internal endpoints are for the api-gateway only: the request must carry the shared secret in
+     * {@value #INTERNAL_TOKEN_HEADER}. The service port is reachable from outside the gateway, so without a configured
+     * secret they stay closed.
+     */
+    private static AuthorizationManager<RequestAuthorizationContext> internalCaller(String internalToken) {
+        byte[] expected = internalToken.getBytes(StandardCharsets.UTF_8);
+        return (authentication, context) -> {
+            String presented = context.getRequest().getHeader(INTERNAL_TOKEN_HEADER);
+            return new AuthorizationDecision(expected.length > 0 && presented != null
+                    && MessageDigest.isEqual(expected, presented.getBytes(StandardCharsets.UTF_8)));
+        };
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -0,0 +1,12 @@
+-- Tokens revocados por logout, compartidos por todas las instancias cuando dmh.security.revocation.store=jdbc.
+-- Las fechas se guardan en epoch millis; las filas vencidas se borran periódicamente, por lo que la tabla solo
+-- contiene tokens que todavía no expiraron.
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti        VARCHAR(100) NOT NULL,
+    expires_at BIGINT       NOT NULL,
+    revoked_at BIGINT       NOT NULL,
+    PRIMARY KEY (jti),
+    INDEX idx_revoked_tokens_revoked_at (revoked_at),
+    INDEX idx_revoked_tokens_expires_at (expires_at)
+);
@@ -0,0 +1,127 @@
+package com.dmh.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.jdbc.DataSourcePoolMetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.assertj.AssertableApplicationContext;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.io.support.ResourcePropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica el ruteo de lecturas y escrituras de {@link ReadReplicaDataSourceConfig} con la configuración del servicio
+ * y el perfil {@code test} ({@code application-test.properties}): dos bases H2 en memoria hacen de primaria y de
+ * réplica, y cada una guarda su nombre en la tabla {@code node}.
+ * <p>
+ * La configuración es la misma en los cuatro servicios; los demás sólo verifican sus propiedades.
+ */
+class ReadReplicaDataSourceConfigTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withInitializer(new ConfigDataApplicationContextInitializer())
+            .withPropertyValues("spring.profiles.active=test")
+            .withUserConfiguration(ReadReplicaDataSourceConfig.class)
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class,
+                    HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class,
+                    MetricsAutoConfiguration.class, SimpleMetricsExportAutoConfiguration.class,
+                    DataSourcePoolMetricsAutoConfiguration.class));
+
+    @Test
+    void readOnlyTransactionsRunOnTheReplica() {
+        runner.run(context -> {
+            mark(context.getBean("primaryDataSource", DataSource.class), "primary");
+            mark(context.getBean("replicaDataSource", DataSource.class), "replica");
+
+            assertThat(nodeInTransaction(context, true)).isEqualTo("replica");
+            assertThat(nodeInTransaction(context, false)).isEqualTo("primary");
+            // fuera de una transacción (por ejemplo Flyway) se usa la primaria
+            assertThat(new JdbcTemplate(context.getBean(DataSource.class))
+                    .queryForObject("SELECT name FROM node", String.class)).isEqualTo("primary");
+        });
+    }
+
+    @Test
+    void poolsAreNamedAndTheReplicaIsReadOnly() {
+        runner.run(context -> {
+            HikariDataSource primary = context.getBean("primaryDataSource", HikariDataSource.class);
+            HikariDataSource replica = context.getBean("replicaDataSource", HikariDataSource.class);
+            assertThat(primary.getPoolName()).isEqualTo("user-primary");
+            assertThat(primary.isReadOnly()).isFalse();
+            assertThat(replica.getPoolName()).isEqualTo("user-replica");
+            assertThat(replica.isReadOnly()).isTrue();
+        });
+    }
+
+    @Test
+    void bothPoolsExposeHikariMetrics() {
+        runner.run(context -> {
+            mark(context.getBean("primaryDataSource", DataSource.class), "primary");
+            mark(context.getBean("replicaDataSource", DataSource.class), "replica");
+            nodeInTransaction(context, true);
+
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            for (String pool : new String[]{"user-primary", "user-replica"}) {
+                assertThat(registry.get("hikaricp.connections").tag("pool", pool).gauge().value()).as(pool)
+                        .isPositive();
+                assertThat(registry.get("hikaricp.connections.max").tag("pool", pool).gauge().value()).as(pool)
+                        .isEqualTo(10);
+                assertThat(registry.get("hikaricp.connections.acquire").tag("pool", pool).timer().count()).as(pool)
+                        .isPositive();
+            }
+        });
+    }
+
+    @Test
+    void withoutTheReplicaEverythingRunsOnThePrimary() {
+        runner.withPropertyValues("dmh.datasource.replica.enabled=false").run(context -> {
+            assertThat(context).doesNotHaveBean(ReadReplicaDataSourceConfig.class);
+            assertThat(context).doesNotHaveBean("replicaDataSource");
+            assertThat(context.getBean(DataSource.class)).isInstanceOf(HikariDataSource.class);
+            mark(context.getBean(DataSource.class), "primary");
+            assertThat(nodeInTransaction(context, true)).isEqualTo("primary");
+        });
+    }
+
+    @Test
+    void disabledByDefault() throws IOException {
+        ResourcePropertySource properties = new ResourcePropertySource("classpath:application.properties");
+
+        assertThat(properties.getProperty("dmh.datasource.replica.enabled"))
+                .isEqualTo("${DB_REPLICA_ENABLED:false}");
+    }
+
+    private static void mark(DataSource dataSource, String name) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbc.update("DELETE FROM node");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+    }
+
+    // Misma ruta que un @Transactional de los servicios: JpaTransactionManager y una consulta por el EntityManager
+    private static String nodeInTransaction(AssertableApplicationContext context, boolean readOnly) {
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                (String) entityManager.createNativeQuery("SELECT name FROM node").getSingleResult());
+    }
+}
@@ -0,0 +1,93 @@
+package com.dmh.backend.controller;
+
+import com.dmh.backend.security.CustomUserDetailsService;
+import com.dmh.backend.security.JwtTokenProvider;
+import com.dmh.backend.security.RevokedTokenStore;
+import com.dmh.backend.security.SecurityConfig;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Los endpoints internos de revocación sólo responden a quien trae el secreto compartido con el gateway: el puerto
+ * del servicio también es accesible desde fuera del gateway, así que un JWT de usuario no alcanza.
+ */
+@WebMvcTest(controllers = RevocationController.class, properties = "dmh.internal.token=internal-secret")
+@Import(SecurityConfig.class)
+class RevocationControllerSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RevokedTokenStore revokedTokenStore;
+
+    @MockBean
+    private JwtTokenProvider tokenProvider;
+
+    @MockBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        when(revokedTokenStore.activeTokenIds()).thenReturn(List.of("jti-1"));
+        when(revokedTokenStore.isRevoked("jti-1")).thenReturn(true);
+    }
+
+    @Test
+    void gatewayWithTheSharedSecretIsAllowed() throws Exception {
+        mockMvc.perform(get("/internal/revocations").header(SecurityConfig.INTERNAL_TOKEN_HEADER, "internal-secret"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[\"jti-1\"]"));
+        mockMvc.perform(get("/internal/revocations/jti-1")
+                        .header(SecurityConfig.INTERNAL_TOKEN_HEADER, "internal-secret"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"revoked\":true}"));
+    }
+
+    @Test
+    void requestsWithoutTheSecretAreRejected() throws Exception {
+        mockMvc.perform(get("/internal/revocations"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/internal/revocations/jti-1").header(SecurityConfig.INTERNAL_TOKEN_HEADER, "guess"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void authenticatedUsersWithoutTheSecretAreRejected() throws Exception {
+        Claims claims = Jwts.claims().setSubject("user@example.com").setId("jti-user");
+        claims.put(JwtTokenProvider.CLAIM_USER_ID, 1L);
+        claims.put(JwtTokenProvider.CLAIM_ROLES, List.of("ROLE_USER"));
+        when(tokenProvider.parseClaims("user-jwt")).thenReturn(Optional.of(claims));
+
+        mockMvc.perform(get("/internal/revocations").header("Authorization", "Bearer user-jwt"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Nested
+    @TestPropertySource(properties = "dmh.internal.token=")
+    class WithoutAConfiguredSecret {
+
+        @Test
+        void theEndpointsAreClosed() throws Exception {
+            mockMvc.perform(get("/internal/revocations").header(SecurityConfig.INTERNAL_TOKEN_HEADER, ""))
+                    .andExpect(status().isForbidden());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.dmh.backend.security;
+
+import com.dmh.backend.model.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifica que el filtro valide cada token con un único parseo y arme el principal desde los claims firmados, sin
+ * consultar la base; los tokens sin el claim del id se siguen resolviendo por email.
+ * <p>
+ * El paquete {@code security} es el mismo en los cuatro servicios, así que este test cubre a todos. La comparación
+ * con el camino anterior está en {@link JwtParseBenchmark}.
+ */
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "dGVzdC1zZWNyZXQtZm9yLWp3dC1hdXRoZW50aWNhdGlvbi1maWx0ZXItdGVzdHM=";
+    private static final long USER_ID = 42L;
+    private static final String EMAIL = "user42@example.com";
+
+    private JwtTokenProvider tokenProvider;
+    private CustomUserDetailsService customUserDetailsService;
+    private RevokedTokenStore revokedTokenStore;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = spy(provider(SECRET, 60_000));
+        customUserDetailsService = mock(CustomUserDetailsService.class);
+        revokedTokenStore = mock(RevokedTokenStore.class);
+        filter = new JwtAuthenticationFilter(tokenProvider, customUserDetailsService, revokedTokenStore);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void buildsPrincipalFromClaimsWithASingleParse() throws Exception {
+        String token = tokenProvider.generateToken(authentication(USER_ID, EMAIL));
+
+        doFilter(token);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+        assertThat(principal.getId()).isEqualTo(USER_ID);
+        assertThat(principal.getUsername()).isEqualTo(EMAIL);
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        verify(tokenProvider, times(1)).parseClaims(token);
+        verifyNoInteractions(customUserDetailsService);
+    }
+
+    @Test
+    void tokensWithoutUserIdAreResolvedByEmail() throws Exception {
+        String token = Jwts.builder()
+                .setSubject(EMAIL)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+        when(customUserDetailsService.loadUserByUsername(EMAIL)).thenReturn(details(USER_ID, EMAIL));
+
+        doFilter(token);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        verify(tokenProvider, times(1)).parseClaims(token);
+        verify(customUserDetailsService, times(1)).loadUserByUsername(EMAIL);
+        // sin jti el token se identifica por su firma
+        verify(revokedTokenStore).isRevoked(token.substring(token.lastIndexOf('.') + 1));
+    }
+
+    @Test
+    void revokedTokensAreNotAuthenticated() throws Exception {
+        String token = tokenProvider.generateToken(authentication(USER_ID, EMAIL));
+        String jti = tokenProvider.parseClaims(token).orElseThrow().getId();
+        when(revokedTokenStore.isRevoked(jti)).thenReturn(true);
+
+        doFilter(token);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void invalidTokensAreNotAuthenticated() throws Exception {
+        String valid = tokenProvider.generateToken(authentication(USER_ID, EMAIL));
+        String expired = provider(SECRET, -1_000).generateToken(authentication(USER_ID, EMAIL));
+        String otherKey = provider("b3RyYS1jbGF2ZS1kZS1maXJtYS1wYXJhLWxvcy10ZXN0cy1kZWwtZmlsdHJv", 60_000)
+                .generateToken(authentication(USER_ID, EMAIL));
+        String tampered = valid.substring(0, valid.length() - 2) + (valid.endsWith("A") ? "BB" : "AA");
+
+        for (String token : new String[]{expired, otherKey, tampered, "not-a-jwt"}) {
+            doFilter(token);
+            assertThat(SecurityContextHolder.getContext().getAuthentication()).as(token).isNull();
+            verify(tokenProvider, times(1)).parseClaims(token);
+        }
+        verifyNoInteractions(customUserDetailsService, revokedTokenStore);
+    }
+
+    @Test
+    void requestsWithoutBearerTokenAreNotParsed() throws Exception {
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(tokenProvider, times(0)).parseClaims(anyString());
+    }
+
+    private void doFilter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    private static JwtTokenProvider provider(String secret, long expirationMs) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "secret", secret);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", expirationMs);
+        provider.init();
+        return provider;
+    }
+
+    private static Authentication authentication(long id, String email) {
+        CustomUserDetails principal = details(id, email);
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    private static CustomUserDetails details(long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        return new CustomUserDetails(user);
+    }
+}
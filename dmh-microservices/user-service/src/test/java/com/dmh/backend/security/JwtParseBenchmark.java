@@ -0,0 +1,73 @@
+package com.dmh.backend.security;
+
+import com.dmh.backend.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por petición de validar el token en {@link JwtAuthenticationFilter}: el camino anterior (un parser nuevo en
+ * {@code validateToken} y otro en {@code getClaimsFromToken}, dos verificaciones de la firma) contra
+ * {@link JwtTokenProvider#parseClaims} con el parser armado una sola vez.
+ * <p>
+ * No corre con los tests: {@code mvn test -Pbenchmark -DskipTests}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtParseBenchmark {
+
+    private static final String SECRET = "dGVzdC1zZWNyZXQtZm9yLWp3dC1hdXRoZW50aWNhdGlvbi1maWx0ZXItdGVzdHM=";
+
+    private JwtTokenProvider tokenProvider;
+    private Key key;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "secret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 3_600_000L);
+        tokenProvider.init();
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("user42@example.com");
+        CustomUserDetails principal = new CustomUserDetails(user);
+        token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Benchmark
+    public Claims validateThenParse() {
+        // validateToken
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        // getClaimsFromToken
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Claims parseClaimsOnce() {
+        return tokenProvider.parseClaims(token).orElseThrow();
+    }
+}
@@ -0,0 +1,94 @@
+package com.dmh.backend.service;
+
+import com.dmh.backend.dto.AccountUpdateRequest;
+import com.dmh.backend.dto.UserUpdateRequest;
+import com.dmh.backend.model.User;
+import com.dmh.backend.repository.UserRepository;
+import com.dmh.backend.security.CustomUserDetailsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifica que los cambios que afectan al principal cacheado lo invaliden recién al confirmarse la transacción.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserServicePrincipalEvictionTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private CustomUserDetailsService customUserDetailsService;
+    @InjectMocks
+    private UserService userService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setEmail("ana@example.com");
+        user.setAlias("sol.mar.rio");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void aliasChangeEvictsThePrincipalAfterCommit() {
+        AccountUpdateRequest request = new AccountUpdateRequest();
+        request.setAlias("luz.pan.mar");
+
+        userService.updateAccount(1L, request);
+
+        verify(customUserDetailsService, never()).evict(any());
+        commit();
+        verify(customUserDetailsService).evict("ana@example.com");
+    }
+
+    @Test
+    void unchangedAliasKeepsThePrincipal() {
+        AccountUpdateRequest request = new AccountUpdateRequest();
+        request.setAlias("sol.mar.rio");
+
+        userService.updateAccount(1L, request);
+        commit();
+
+        verify(customUserDetailsService, never()).evict(any());
+    }
+
+    @Test
+    void emailChangeEvictsThePreviousEmailAfterCommit() {
+        UserUpdateRequest request = new UserUpdateRequest();
+        request.setEmail("ana.nueva@example.com");
+
+        userService.updateUser(1L, request);
+
+        verify(customUserDetailsService, never()).evict(any());
+        commit();
+        verify(customUserDetailsService).evict("ana@example.com");
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+}